@@ -2,7 +2,18 @@ package dev.zotware.roble;
 
 import dev.zotware.roble.core.GlobalListeners;
 import dev.zotware.roble.util.ReflectionHandler;
+import dev.zotware.roble.util.commands.CommandList;
+import dev.zotware.roble.util.cooldowns.CooldownPersistence;
+import dev.zotware.roble.util.cooldowns.CooldownStore;
+import dev.zotware.roble.util.cooldowns.CooldownWheel;
 import dev.zotware.roble.util.gui.MenuInstance;
+import dev.zotware.roble.util.scheduling.TickDispatcher;
+import dev.zotware.roble.util.storage.Storage;
+import dev.zotware.roble.util.text.ActionBarManager;
+import dev.zotware.roble.util.text.Broadcast;
+import dev.zotware.roble.util.text.ColorTranslator;
+import dev.zotware.roble.util.text.MessageTemplate;
+import dev.zotware.roble.util.text.PlaceholderResolver;
 import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.ChatMessageType;
 import net.md_5.bungee.api.chat.TextComponent;
@@ -19,8 +30,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class RoblePlugin extends JavaPlugin {
 
@@ -42,9 +53,21 @@ public abstract class RoblePlugin extends JavaPlugin {
     private GlobalListeners globalListeners;
     // TAG storage
     private Map<UUID, MenuInstance> menuInstances;
-    private Map<UUID, Map<String, Long>> cooldowns;
+    private CooldownStore cooldowns;
+    private CooldownWheel cooldownWheel;
+    private CooldownPersistence cooldownPersistence;
+    private long untimedCooldownMaxAge;
+    private final List<Storage> storages = new CopyOnWriteArrayList<>(); // storages may be created before enabling and from any thread
+    private long storageDrainTimeout;
+    // TAG executors
+    private ExecutorService ioExecutor;
+    private Executor mainThreadExecutor;
+    private TickDispatcher tickDispatcher;
+    private int ioThreads, ioQueueCapacity;
     // TAG helpers
-    private Pattern hexPattern;
+    private ColorTranslator colorTranslator;
+    private PlaceholderResolver placeholderResolver;
+    private ActionBarManager actionBarManager;
     private Random random;
     // TAG hooks
     private boolean papiInstalled;
@@ -55,13 +78,31 @@ public abstract class RoblePlugin extends JavaPlugin {
         INSTANCE = this;
         random = new Random();
         menuInstances = new HashMap<>();
-        cooldowns = new HashMap<>();
+        cooldowns = new CooldownStore();
+        cooldownWheel = new CooldownWheel(this, cooldowns);
+        getServer().getScheduler().runTaskTimer(this, cooldownWheel::tick, 1, 1);
+        setUntimedCooldownMaxAge(TimeUnit.DAYS.toMillis(30));
+        getServer().getScheduler().runTaskTimer(this, () -> {
+            if (getUntimedCooldownMaxAge() > 0) cooldowns.purgeUntimed(System.currentTimeMillis() - getUntimedCooldownMaxAge());
+        }, 1200, 1200);
+        setStorageDrainTimeout(10_000L);
+        synchronized (this) {
+            ioExecutor = null; // the one of a previous enable stays shut down
+        }
+        setIOThreads(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+        setIOQueueCapacity(10_000);
+        tickDispatcher = new TickDispatcher(this);
+        mainThreadExecutor = (task -> {
+            if (Bukkit.isPrimaryThread()) task.run();
+            else tickDispatcher.submit(TickDispatcher.Priority.HIGH, task); // callbacks are not held back by queued bulk work
+        });
 
         papiInstalled = (getServer().getPluginManager().getPlugin("PlaceholderAPI") != null);
+        placeholderResolver = (papiInstalled ? new PlaceholderResolver(this) : null);
         if (setupEconomy()) getServer().getLogger().info("Vault was found and hooked.");
 
-        if (HEX_VERSION) hexPattern = Pattern.compile("#[a-fA-F\\d]{6}");
-        else hexPattern = null;
+        colorTranslator = new ColorTranslator(HEX_VERSION);
+        actionBarManager = new ActionBarManager(this);
 
         refreshReflectionHandler();
         setGlobalListeners(new GlobalListeners(this));
@@ -74,6 +115,38 @@ public abstract class RoblePlugin extends JavaPlugin {
         getServer().getScheduler().cancelTasks(this);
         disable();
 
+        if (cooldownPersistence != null) cooldownPersistence.saveAll();
+
+        final long drainDeadline = (System.currentTimeMillis() + getStorageDrainTimeout());
+        final ExecutorService executor;
+        synchronized (this) {
+            executor = ioExecutor;
+        }
+
+        if (executor != null) { // async work still running is allowed to finish before the storages close, later work is rejected
+            executor.shutdown(); // waited for without holding the lock, running tasks may still need getIOExecutor()
+            try {
+                if (!executor.awaitTermination(Math.max(1, drainDeadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                    final List<Runnable> dropped = executor.shutdownNow();
+                    for (Runnable task : dropped) if (task instanceof Future) ((Future<?>) task).cancel(false);
+                    getLogger().warning("The I/O executor did not finish within " + getStorageDrainTimeout() + "ms ("
+                            + dropped.size() + " tasks were dropped).");
+                }
+            } catch (InterruptedException e) {Thread.currentThread().interrupt();}
+        }
+
+        // server thread work queued by the I/O tasks (e.g. future callbacks) still runs while the storages are open,
+        // storage work it submits runs on this thread now that the executor is shut down
+        final int undispatched = tickDispatcher.drain(Math.max(1, drainDeadline - System.currentTimeMillis()));
+        if (undispatched > 0) getLogger().warning("The tick dispatcher did not finish within " + getStorageDrainTimeout()
+                + "ms (" + undispatched + " tasks were dropped).");
+
+        for (Storage storage : getStorages()) {
+            storage.disableWriteBehind(Math.max(1, drainDeadline - System.currentTimeMillis()));
+            storage.close();
+        }
+        getStorages().clear();
+
         INSTANCE.getServer().getMessenger().unregisterIncomingPluginChannel(INSTANCE);
         INSTANCE.getServer().getMessenger().unregisterOutgoingPluginChannel(INSTANCE);
     }
@@ -114,7 +187,8 @@ public abstract class RoblePlugin extends JavaPlugin {
     }
 
     /**
-     * Sends a message to the player/command-sender (If prefixed with {bar} and the recipient is a player, the message goes to the action bar).
+     * Sends a message to the player/command-sender (If prefixed with {bar} and the recipient is a player, the message goes to the action bar,
+     * {bar:<seconds>} keeps it there for the seconds through the {@link ActionBarManager}).
      *
      * @param recipient    The player/command-sender to send to.
      * @param message      The message with placeholders.
@@ -127,65 +201,50 @@ public abstract class RoblePlugin extends JavaPlugin {
             final Player player = ((Player) recipient);
             if (!player.isOnline()) return;
 
-            String newMessage = applyPlaceholders(player, message, placeholders);
-            if (newMessage.toLowerCase().startsWith("{bar:")) {
-                Pattern p = Pattern.compile("\\{bar:\\s+(\\d)}");
-                Matcher matcher = p.matcher(newMessage);
-                if (matcher.find() && !isNotNumeric(matcher.group())) {
-                    final String finalMessage = newMessage.replace("{bar:" + matcher.group() + "}", "");
-                    final int[] values = new int[2];
-
-                    values[1] = Integer.parseInt(matcher.group());
-                    values[0] = getServer().getScheduler().runTaskTimer(this, () -> {
-                        if (values[1] <= 0) {
-                            getServer().getScheduler().cancelTask(values[0]);
-                            return;
-                        }
-
-                        sendActionBar(player, finalMessage);
-                        values[1]++;
-                    }, 0, 10).getTaskId();
+            final String newMessage = applyPlaceholders(player, message, placeholders);
+            if (newMessage.regionMatches(true, 0, "{bar:", 0, 5)) {
+                final int end = newMessage.indexOf('}');
+                final String duration = ((end > 5) ? newMessage.substring(5, end).trim() : "");
+                if (!duration.isEmpty() && duration.chars().allMatch(Character::isDigit)) {
+                    actionBarManager.show(player, color(newMessage.substring(end + 1)), (Long.parseLong(duration) * 20), 0);
                     return;
                 }
 
-                sendActionBar(player, message.substring(5));
-            } else if (newMessage.toLowerCase().startsWith("{bar")) sendActionBar(player, newMessage.substring(5));
+                sendActionBar(player, newMessage.substring((end > 0) ? (end + 1) : 5));
+            } else if (newMessage.regionMatches(true, 0, "{bar}", 0, 5)) sendActionBar(player, newMessage.substring(5));
             else player.sendMessage(color(newMessage));
         } else recipient.sendMessage(color(message));
     }
 
+    /**
+     * Prepares a message for many recipients, rendering the parts that do not depend on the recipient only once.
+     *
+     * @param message      The message (A "{bar}" prefix sends it to the action bar).
+     * @param placeholders The placeholders shared by every recipient in the format <placeholder>:<value>.
+     * @return The broadcast to add per-player placeholders to and send.
+     */
+    public Broadcast broadcast(@NotNull String message, @Nullable String... placeholders) {
+        return new Broadcast(this, message, placeholders);
+    }
+
     /**
      * @param message The message to translate.
      * @return The colored text.
+     * @see ColorTranslator
      */
-    public String color(@Nullable String message) {
-        if (message == null || message.isEmpty()) return message;
-
-        if (HEX_VERSION) {
-            Matcher matcher = hexPattern.matcher(message);
-            while (matcher.find()) {
-                final ChatColor hexColor = ChatColor.of(matcher.group());
-                final String before = message.substring(0, matcher.start()), after = message.substring(matcher.end());
-                matcher = hexPattern.matcher(message = (before + hexColor + after));
-            }
-        }
-
-        return ChatColor.translateAlternateColorCodes('&', message);
-    }
+    public String color(@Nullable String message) {return colorTranslator.translate(message);}
 
+    /**
+     * @param text         The text to apply replacements to.
+     * @param placeholders The placeholders in the format <placeholder>:<replacement> (Split on the first ':').
+     * @return The text with applied replacements.
+     * @see MessageTemplate
+     */
     public String applyPlaceholders(@Nullable String text, @Nullable String... placeholders) {
         if (text == null || text.isEmpty() || placeholders == null || placeholders.length <= 0)
             return text;
 
-        for (int i = -1; ++i < placeholders.length; ) {
-            final String placeholder = placeholders[i];
-            if (placeholder == null || !placeholder.contains(":")) continue;
-
-            final String[] args = placeholder.split(":");
-            text = text.replaceAll("(?i)" + Pattern.quote(args[0]), args[1]);
-        }
-
-        return text;
+        return MessageTemplate.apply(text, placeholders);
     }
 
     /**
@@ -196,7 +255,7 @@ public abstract class RoblePlugin extends JavaPlugin {
      */
     public String applyPlaceholders(@NotNull Player player, @Nullable String text, @Nullable String... placeholders) {
         if (text == null || text.isEmpty()) return text;
-        return applyPlaceholders((papiInstalled ? me.clip.placeholderapi.PlaceholderAPI.setPlaceholders(player, text) : text), placeholders);
+        return applyPlaceholders(((placeholderResolver != null) ? placeholderResolver.resolve(player, text) : text), placeholders);
     }
 
     /**
@@ -338,35 +397,12 @@ public abstract class RoblePlugin extends JavaPlugin {
      * Executes a list of commands and determines how their executed with placeholder support.
      *
      * @param commandList  A list of commands with the option to add :CONSOLE, :CHAT, or :PLAYER as a suffix.
-     * @param player       The player to use for the player placeholder (Can be set to NULL).
+     * @param player       The player to use for the player placeholder.
      * @param placeholders The placeholders to replace using the format <placeholder>:<value>.
+     * @see CommandList
      */
     public void executeCommands(@NotNull List<String> commandList, @NotNull Player player, @Nullable String... placeholders) {
-        if (commandList.isEmpty()) return;
-
-        List<String> fixedPlaceholders = new ArrayList<>();
-        if (placeholders != null && placeholders.length > 0) fixedPlaceholders.addAll(Arrays.asList(placeholders));
-        if (!fixedPlaceholders.contains("{player}:" + player.getName()))
-            fixedPlaceholders.add("{player}:" + player.getName());
-        if (!fixedPlaceholders.contains("{uuid}:" + player.getUniqueId()))
-            fixedPlaceholders.add("{uuid}:" + player.getUniqueId());
-
-        String[] newPlaceholderList = new String[fixedPlaceholders.size()];
-        newPlaceholderList = fixedPlaceholders.toArray(newPlaceholderList);
-
-        for (String commandLine : commandList) {
-            if (commandLine == null || commandLine.isEmpty()) continue;
-            if (commandLine.contains(":")) {
-                final String[] commandArgs = commandLine.split(":");
-                if (commandArgs[1].equalsIgnoreCase("CHAT")) {
-                    player.chat(applyPlaceholders(player, commandArgs[0].replaceAll("(?i):CHAT", ""), newPlaceholderList));
-                } else getServer().dispatchCommand(commandArgs[1].equalsIgnoreCase("PLAYER")
-                        ? player : getServer().getConsoleSender(), applyPlaceholders(player, ((commandLine.startsWith("/")
-                        ? commandArgs[0].substring(1) : commandArgs[0]).replaceAll("(?i):PLAYER", "")
-                        .replaceAll("(?i):CONSOLE", "")), newPlaceholderList));
-            } else getServer().dispatchCommand(getServer().getConsoleSender(),
-                    applyPlaceholders(player, commandLine, newPlaceholderList));
-        }
+        if (!commandList.isEmpty()) CommandList.of(commandList).execute(this, player, placeholders);
     }
 
     /**
@@ -376,15 +412,21 @@ public abstract class RoblePlugin extends JavaPlugin {
      * @param placeholders The placeholders to replace using the format <placeholder>:<value>.
      */
     public void executeCommands(@NotNull List<String> commandList, @Nullable String... placeholders) {
-        if (commandList.isEmpty()) return;
-
-        final List<String> fixedPlaceholders = ((placeholders == null || placeholders.length <= 0) ? new ArrayList<>() : Arrays.asList(placeholders.clone()));
-        final String[] newPlaceholderList = new String[fixedPlaceholders.size()];
+        if (!commandList.isEmpty()) CommandList.of(commandList).execute(this, null, placeholders);
+    }
 
-        for (String commandLine : commandList) {
-            if (commandLine == null || commandLine.isEmpty()) continue;
-            getServer().dispatchCommand(getServer().getConsoleSender(), applyPlaceholders(commandLine, newPlaceholderList));
-        }
+    /**
+     * Queues a list of commands on the {@link TickDispatcher}, one task per command, so large reward lists are spread
+     * over ticks instead of running at once (Safe to call from any thread).
+     *
+     * @param commandList  A list of commands with the option to add :CONSOLE, :CHAT, or :PLAYER as a suffix.
+     * @param player       The player to use for the player placeholder (Can be set to NULL).
+     * @param priority     The dispatch priority.
+     * @param placeholders The placeholders to replace using the format <placeholder>:<value>.
+     */
+    public void queueCommands(@NotNull List<String> commandList, @Nullable Player player, @NotNull TickDispatcher.Priority priority,
+                              @Nullable String... placeholders) {
+        if (!commandList.isEmpty()) CommandList.of(commandList).queue(this, player, priority, placeholders);
     }
 
     /**
@@ -470,20 +512,49 @@ public abstract class RoblePlugin extends JavaPlugin {
     // TAG cooldowns
 
     /**
+     * Sets the cooldown without a known duration, so it stays until it is removed, restarted through
+     * {@link #startCooldown(Object, String, int)} or older than {@link #getUntimedCooldownMaxAge()}.
+     *
      * @param playerIdentifier The player to check the cooldown for (UUID or Player).
      * @param cooldownId       The id of the cooldown to check.
      * @param preSetCooldown   The cooldown duration to set (used for loading in cooldowns).
      */
     public void updateCooldown(@NotNull Object playerIdentifier, @NotNull String cooldownId, long... preSetCooldown) {
-        UUID playerUniqueId = null;
-        if (playerIdentifier instanceof UUID) playerUniqueId = (UUID) playerIdentifier;
-        else if (playerIdentifier instanceof Player) playerUniqueId = ((Player) playerIdentifier).getUniqueId();
-
-        if (playerUniqueId != null) {
-            final Map<String, Long> cds = getCooldowns().getOrDefault(playerUniqueId, new HashMap<>());
-            cds.put(cooldownId, ((preSetCooldown.length > 0) ? preSetCooldown[0] : System.currentTimeMillis()));
-            getCooldowns().put(playerUniqueId, cds);
-        }
+        final UUID playerUniqueId = getUniqueId(playerIdentifier);
+        if (playerUniqueId != null) getCooldownStore().set(playerUniqueId, getCooldownStore().getHandle(cooldownId),
+                ((preSetCooldown.length > 0) ? preSetCooldown[0] : System.currentTimeMillis()));
+    }
+
+    /**
+     * Starts the cooldown now and removes it automatically once it ends, calling a
+     * {@link dev.zotware.roble.util.cooldowns.events.CooldownExpireEvent} on the server thread.
+     *
+     * @param playerIdentifier The player to start the cooldown for (UUID or Player).
+     * @param cooldownId       The id of the cooldown to start.
+     * @param cooldown         The cooldown duration in seconds.
+     */
+    public void startCooldown(@NotNull Object playerIdentifier, @NotNull String cooldownId, int cooldown) {
+        startCooldown(playerIdentifier, cooldownId, cooldown, null);
+    }
+
+    /**
+     * Starts the cooldown now and removes it automatically once it ends, calling a
+     * {@link dev.zotware.roble.util.cooldowns.events.CooldownExpireEvent} and the callback on the server thread.
+     *
+     * @param playerIdentifier The player to start the cooldown for (UUID or Player).
+     * @param cooldownId       The id of the cooldown to start.
+     * @param cooldown         The cooldown duration in seconds.
+     * @param onExpire         The callback run once the cooldown ends (Not run if it is restarted or cleared before).
+     */
+    public void startCooldown(@NotNull Object playerIdentifier, @NotNull String cooldownId, int cooldown, @Nullable Runnable onExpire) {
+        final UUID playerUniqueId = getUniqueId(playerIdentifier);
+        if (playerUniqueId == null) return;
+
+        final int handle = getCooldownStore().getHandle(cooldownId);
+        final long timestamp = System.currentTimeMillis(), expiresAt = (timestamp + (cooldown * 1000L));
+        getCooldownStore().set(playerUniqueId, handle, timestamp);
+        if (getCooldownStore().setExpiry(playerUniqueId, handle, timestamp, expiresAt))
+            getCooldownWheel().schedule(playerUniqueId, handle, timestamp, expiresAt, onExpire);
     }
 
     /**
@@ -503,17 +574,13 @@ public abstract class RoblePlugin extends JavaPlugin {
      * @return Whether the player is currently on cooldown.
      */
     public long getCooldown(@NotNull Object playerIdentifier, @NotNull String cooldownId, int cooldown) {
-        UUID playerUniqueId = null;
-        if (playerIdentifier instanceof UUID) playerUniqueId = (UUID) playerIdentifier;
-        else if (playerIdentifier instanceof Player) playerUniqueId = ((Player) playerIdentifier).getUniqueId();
-
-        if (playerUniqueId != null) {
-            final Map<String, Long> cds = getCooldowns().getOrDefault(playerUniqueId, null);
-            if (cds != null && cds.containsKey(cooldownId))
-                return ((cds.get(cooldownId) / 1000) + cooldown) - (System.currentTimeMillis() / 1000);
-        }
+        final UUID playerUniqueId = getUniqueId(playerIdentifier);
+        if (playerUniqueId == null) return 0;
 
-        return 0;
+        final long timestamp = getCooldownStore().get(playerUniqueId, getCooldownStore().findHandle(cooldownId));
+        if (timestamp == 0) return 0;
+
+        return ((timestamp / 1000) + cooldown) - (System.currentTimeMillis() / 1000);
     }
 
     /**
@@ -521,8 +588,8 @@ public abstract class RoblePlugin extends JavaPlugin {
      * @return All the player's cooldowns in a single string (Format: <cd>:<time-stamp>,<cd>:<time-stamp>,...).
      */
     public String getCooldownString(@NotNull UUID playerUniqueId) {
-        final Map<String, Long> cds = getCooldowns().getOrDefault(playerUniqueId, null);
-        if (cds == null || cds.isEmpty()) return null;
+        final Map<String, Long> cds = getCooldownStore().getAll(playerUniqueId);
+        if (cds.isEmpty()) return null;
 
         final StringBuilder sb = new StringBuilder();
         for (Map.Entry<String, Long> entry : cds.entrySet()) {
@@ -533,6 +600,17 @@ public abstract class RoblePlugin extends JavaPlugin {
         return sb.toString();
     }
 
+    /**
+     * Keeps cooldowns in the storage in a compact binary form, loading each player's during pre-login and
+     * saving and unloading them when they quit (Expired cooldowns are never written).
+     *
+     * @param storage The registered storage the cooldowns are kept in.
+     * @param table   The table name.
+     */
+    public void enableCooldownPersistence(@NotNull Storage storage, @NotNull String table) {
+        cooldownPersistence = new CooldownPersistence(this, storage, table);
+    }
+
     /**
      * @param playerUniqueId The player to check the cooldown for (UUID or Player).
      * @param section        The configuration section from a YAML file.
@@ -560,6 +638,12 @@ public abstract class RoblePlugin extends JavaPlugin {
         }
     }
 
+    private static UUID getUniqueId(@NotNull Object playerIdentifier) {
+        if (playerIdentifier instanceof UUID) return (UUID) playerIdentifier;
+        else if (playerIdentifier instanceof Player) return ((Player) playerIdentifier).getUniqueId();
+        return null;
+    }
+
     // TAG menu instances
 
     /**
@@ -581,11 +665,110 @@ public abstract class RoblePlugin extends JavaPlugin {
 
     public ReflectionHandler getReflectionHandler() {return reflectionHandler;}
 
+    public ColorTranslator getColorTranslator() {return colorTranslator;}
+
+    public ActionBarManager getActionBarManager() {return actionBarManager;}
+
+    /**
+     * @return The PlaceholderAPI resolver (NULL when PlaceholderAPI is not installed).
+     */
+    public PlaceholderResolver getPlaceholderResolver() {return placeholderResolver;}
+
     public Random getRandom() {return random;}
 
     public Economy getEconomy() {return economy;}
 
-    public Map<UUID, Map<String, Long>> getCooldowns() {return cooldowns;}
+    /**
+     * @return The cooldown timestamps keyed by player and cooldown id (A view written through to the cooldown store).
+     * @deprecated Use {@link #getCooldownStore()}, whose handle based methods read without boxing or copying.
+     */
+    @Deprecated
+    public Map<UUID, Map<String, Long>> getCooldowns() {return cooldowns.asMap();}
+
+    /**
+     * @return The cooldown store (Safe to read from any thread).
+     */
+    public CooldownStore getCooldownStore() {return cooldowns;}
+
+    public CooldownWheel getCooldownWheel() {return cooldownWheel;}
+
+    public long getUntimedCooldownMaxAge() {return untimedCooldownMaxAge;}
+
+    /**
+     * @param untimedCooldownMaxAge The milliseconds after which cooldowns set without a duration (See
+     *                              {@link #updateCooldown(Object, String, long...)}) are removed, checked once a minute
+     *                              (30 days by default, 0 keeps them until they are removed).
+     */
+    public void setUntimedCooldownMaxAge(long untimedCooldownMaxAge) {this.untimedCooldownMaxAge = Math.max(0, untimedCooldownMaxAge);}
+
+    /**
+     * @return The cooldown persistence or NULL if cooldowns are not kept in a storage.
+     */
+    public CooldownPersistence getCooldownPersistence() {return cooldownPersistence;}
+
+    public List<Storage> getStorages() {return storages;}
+
+    public long getStorageDrainTimeout() {return storageDrainTimeout;}
+
+    /**
+     * @param storageDrainTimeout The total milliseconds the write-behind queues are given to drain when disabling.
+     */
+    public void setStorageDrainTimeout(long storageDrainTimeout) {this.storageDrainTimeout = storageDrainTimeout;}
+
+    /**
+     * Gets the shared executor for blocking I/O such as storage reads and writes (Created on first use).
+     * Its threads are named "Roble-IO-#" and its queue is bounded, when full (Or once the plugin is disabled) submitting
+     * throws a {@link RejectedExecutionException} instead of running the task on the calling thread.
+     *
+     * @return The I/O executor.
+     */
+    public synchronized ExecutorService getIOExecutor() {
+        if (ioExecutor == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(getIOThreads(), getIOThreads(), 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(getIOQueueCapacity()), runnable -> {
+                final Thread thread = new Thread(runnable, ("Roble-IO-" + threadCount.incrementAndGet()));
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            ioExecutor = executor;
+        }
+
+        return ioExecutor;
+    }
+
+    /**
+     * @return The amount of tasks waiting for an I/O thread.
+     */
+    public synchronized int getIOQueueSize() {
+        return ((ioExecutor instanceof ThreadPoolExecutor) ? ((ThreadPoolExecutor) ioExecutor).getQueue().size() : 0);
+    }
+
+    /**
+     * @return The executor running tasks on the server thread (Immediately when already on it, otherwise through the
+     * {@link TickDispatcher} with {@link TickDispatcher.Priority#HIGH}), e.g. for future callbacks.
+     */
+    public Executor getMainThreadExecutor() {return mainThreadExecutor;}
+
+    /**
+     * @return The dispatcher spreading queued server thread work over ticks within a time budget.
+     */
+    public TickDispatcher getTickDispatcher() {return tickDispatcher;}
+
+    public int getIOThreads() {return ioThreads;}
+
+    /**
+     * @param ioThreads The amount of I/O threads (Applied when the I/O executor is first created).
+     */
+    public void setIOThreads(int ioThreads) {this.ioThreads = Math.max(1, ioThreads);}
+
+    public int getIOQueueCapacity() {return ioQueueCapacity;}
+
+    /**
+     * @param ioQueueCapacity The amount of I/O tasks that can wait for a thread (Applied when the I/O executor is first created).
+     */
+    public void setIOQueueCapacity(int ioQueueCapacity) {this.ioQueueCapacity = Math.max(1, ioQueueCapacity);}
 
     public GlobalListeners getGlobalListeners() {return globalListeners;}
 
@@ -5,10 +5,13 @@ import dev.zotware.roble.util.gui.Item;
 import dev.zotware.roble.util.gui.MenuInstance;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.jetbrains.annotations.NotNull;
 
@@ -52,7 +55,24 @@ public class GlobalListeners implements Listener {
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent e) {
+        if (e.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED && INSTANCE.getCooldownPersistence() != null)
+            INSTANCE.getCooldownPersistence().load(e.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent e) {
+        if (INSTANCE.getCooldownPersistence() != null)
+            INSTANCE.getCooldownPersistence().completeLogin(e.getPlayer().getUniqueId(), (e.getResult() == PlayerLoginEvent.Result.ALLOWED));
+    }
+
     @EventHandler
-    public void onQuit(PlayerQuitEvent e) {INSTANCE.clearMenuInstance(e.getPlayer());}
+    public void onQuit(PlayerQuitEvent e) {
+        INSTANCE.clearMenuInstance(e.getPlayer());
+        if (INSTANCE.getCooldownPersistence() != null) INSTANCE.getCooldownPersistence().unload(e.getPlayer().getUniqueId());
+        INSTANCE.getActionBarManager().remove(e.getPlayer().getUniqueId());
+        if (INSTANCE.getPlaceholderResolver() != null) INSTANCE.getPlaceholderResolver().clear(e.getPlayer().getUniqueId());
+    }
 
 }
\ No newline at end of file
@@ -4,4 +4,6 @@ import org.jetbrains.annotations.NotNull;
 
 public class StorageException extends Exception {
     public StorageException(@NotNull String message) {super(message);}
+
+    public StorageException(@NotNull String message, @NotNull Throwable cause) {super(message, cause);}
 }
\ No newline at end of file
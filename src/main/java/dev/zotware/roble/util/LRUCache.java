@@ -0,0 +1,110 @@
+package dev.zotware.roble.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LRUCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<V>[] segments;
+    private volatile int maximumSize;
+
+    /**
+     * Creates a size bounded cache evicting the least recently used entry once full. The entries are spread over
+     * separately locked segments so lookups from several threads rarely wait on each other.
+     *
+     * @param maximumSize The maximum amount of entries (0 or less caches nothing).
+     */
+    public LRUCache(int maximumSize) {
+        this.segments = createSegments();
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * @param key The key.
+     * @return The cached value or NULL if it is not cached.
+     */
+    public @Nullable V get(@NotNull K key) {
+        final Segment<V> segment = getSegment(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    /**
+     * @param key   The key.
+     * @param value The value to cache (Evicts the least recently used entry of the key's segment when it is full).
+     */
+    public void put(@NotNull K key, @NotNull V value) {
+        if (maximumSize <= 0) return;
+
+        final Segment<V> segment = getSegment(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        for (Segment<V> segment : segments)
+            synchronized (segment) {
+                segment.clear();
+            }
+    }
+
+    /**
+     * @return The amount of cached entries.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments)
+            synchronized (segment) {
+                size += segment.size();
+            }
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Segment<V>[] createSegments() {
+        final Segment<V>[] created = new Segment[SEGMENTS];
+        for (int i = -1; ++i < SEGMENTS; ) created[i] = new Segment<>(this);
+        return created;
+    }
+
+    private Segment<V> getSegment(@NotNull Object key) {
+        final int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    // TAG getters & setters
+
+    public int getMaximumSize() {return maximumSize;}
+
+    /**
+     * @param maximumSize The maximum amount of entries (0 or less caches nothing, applied on the next put of each segment).
+     */
+    public void setMaximumSize(int maximumSize) {this.maximumSize = maximumSize;}
+
+    private static class Segment<V> extends LinkedHashMap<Object, V> {
+
+        private final LRUCache<?, V> cache;
+
+        private Segment(@NotNull LRUCache<?, V> cache) {
+            super(16, 0.75f, true);
+            this.cache = cache;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, V> eldest) {
+            return (size() > Math.max(1, ((cache.maximumSize + (SEGMENTS - 1)) / SEGMENTS)));
+        }
+
+    }
+
+}
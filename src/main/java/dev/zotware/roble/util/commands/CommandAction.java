@@ -0,0 +1,82 @@
+package dev.zotware.roble.util.commands;
+
+import dev.zotware.roble.RoblePlugin;
+import dev.zotware.roble.util.text.MessageTemplate;
+import dev.zotware.roble.util.text.PlaceholderResolver;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class CommandAction {
+
+    private final String line, command;
+    private final Target target;
+    private final boolean papi;
+
+    /**
+     * Parses a command line once. A trailing ":CONSOLE", ":PLAYER" or ":CHAT" (Case-insensitive) picks who runs it,
+     * any other ':' is part of the command (e.g. "give {player} minecraft:diamond"). The leading '/' is dropped for dispatching.
+     *
+     * @param line The command line.
+     */
+    public CommandAction(@NotNull String line) {
+        this.line = line;
+
+        String text = line;
+        Target found = Target.CONSOLE;
+        final int split = line.lastIndexOf(':');
+        if (split >= 0) {
+            final String suffix = line.substring(split + 1).trim();
+            for (Target value : Target.values())
+                if (value.name().equalsIgnoreCase(suffix)) {
+                    found = value;
+                    text = line.substring(0, split);
+                    break;
+                }
+        }
+
+        this.target = found;
+        this.command = ((found != Target.CHAT && text.startsWith("/")) ? text.substring(1) : text);
+        this.papi = (command.indexOf('%') >= 0);
+    }
+
+    /**
+     * Runs the action. Without a player, PLAYER and CHAT actions are skipped.
+     *
+     * @param instance The plugin instance.
+     * @param player   The player to run PLAYER/CHAT actions as and to resolve "%placeholder%" tokens for (Can be NULL).
+     * @param keys     The placeholder keys.
+     * @param values   The placeholder values in the order of the keys.
+     */
+    public void execute(@NotNull RoblePlugin instance, @Nullable Player player, @NotNull String[] keys, @NotNull Object[] values) {
+        if (command.isEmpty() || (player == null && target != Target.CONSOLE)) return;
+
+        // the template is compiled from the configured command, so per-player text never reaches the template caches
+        final PlaceholderResolver resolver = ((papi && player != null) ? instance.getPlaceholderResolver() : null);
+        final String text;
+        if (keys.length > 0) {
+            final MessageTemplate template = MessageTemplate.compile(command, keys);
+            text = ((resolver != null) ? template.render(literal -> resolver.resolve(player, literal), values) : template.render(values));
+        } else text = ((resolver != null) ? resolver.resolve(player, command) : command);
+
+        if (target == Target.CHAT) player.chat(text);
+        else instance.getServer().dispatchCommand(((target == Target.PLAYER) ? player : instance.getServer().getConsoleSender()), text);
+    }
+
+    // TAG getters & setters
+
+    /**
+     * @return The line the action was parsed from.
+     */
+    public String getLine() {return line;}
+
+    /**
+     * @return The command without the target suffix and leading '/'.
+     */
+    public String getCommand() {return command;}
+
+    public Target getTarget() {return target;}
+
+    public enum Target {CONSOLE, PLAYER, CHAT}
+
+}
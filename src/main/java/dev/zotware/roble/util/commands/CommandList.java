@@ -0,0 +1,138 @@
+package dev.zotware.roble.util.commands;
+
+import dev.zotware.roble.RoblePlugin;
+import dev.zotware.roble.util.LRUCache;
+import dev.zotware.roble.util.scheduling.TickDispatcher;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+public class CommandList {
+
+    private static final int CACHE_LIMIT = 1024;
+    private static final LRUCache<List<String>, CommandList> CACHE = new LRUCache<>(CACHE_LIMIT);
+
+    private final CommandAction[] actions;
+
+    private CommandList(@NotNull List<String> lines) {
+        final List<CommandAction> actionList = new ArrayList<>(lines.size());
+        for (String line : lines) if (line != null && !line.isEmpty()) actionList.add(new CommandAction(line));
+        this.actions = actionList.toArray(new CommandAction[0]);
+    }
+
+    /**
+     * Gets the compiled form of the command lines, parsing them only the first time the same lines are seen.
+     *
+     * @param lines The command lines.
+     * @return The compiled command list.
+     */
+    public static CommandList of(@NotNull List<String> lines) {
+        CommandList commandList = CACHE.get(lines);
+        if (commandList != null) return commandList;
+
+        final List<String> copy = Collections.unmodifiableList(new ArrayList<>(lines));
+        commandList = new CommandList(copy);
+        CACHE.put(copy, commandList);
+        return commandList;
+    }
+
+    /**
+     * @param section The configuration section.
+     * @param path    The path of the command list in the section.
+     * @return The compiled command list (Lines edited in the configuration are compiled again on their first use).
+     */
+    public static CommandList of(@NotNull ConfigurationSection section, @NotNull String path) {return of(section.getStringList(path));}
+
+    /**
+     * Clears every cached command list.
+     */
+    public static void clearCache() {CACHE.clear();}
+
+    /**
+     * Runs every action, adding the "{player}" and "{uuid}" placeholders when a player is passed and they were not passed already.
+     *
+     * @param instance     The plugin instance.
+     * @param player       The player (Can be NULL, PLAYER and CHAT actions are then skipped).
+     * @param placeholders The placeholders in the format <placeholder>:<value> (Split on the first ':').
+     */
+    public void execute(@NotNull RoblePlugin instance, @Nullable Player player, @Nullable String... placeholders) {
+        if (actions.length == 0) return;
+
+        final Context context = new Context(player, placeholders);
+        for (CommandAction action : actions) action.execute(instance, player, context.keys, context.values);
+    }
+
+    /**
+     * Queues every action as its own task on the {@link TickDispatcher} so a long list is spread over ticks (Safe from any thread).
+     *
+     * @param instance     The plugin instance.
+     * @param player       The player (Can be NULL, PLAYER and CHAT actions are then skipped).
+     * @param priority     The dispatch priority.
+     * @param placeholders The placeholders in the format <placeholder>:<value> (Split on the first ':').
+     */
+    public void queue(@NotNull RoblePlugin instance, @Nullable Player player, @NotNull TickDispatcher.Priority priority,
+                      @Nullable String... placeholders) {
+        if (actions.length == 0) return;
+
+        final Context context = new Context(player, placeholders);
+        for (CommandAction action : actions)
+            instance.getTickDispatcher().submit(priority, () -> action.execute(instance, player, context.keys, context.values));
+    }
+
+    // TAG getters & setters
+
+    public List<CommandAction> getActions() {return Collections.unmodifiableList(Arrays.asList(actions));}
+
+    public int size() {return actions.length;}
+
+    private static class Context {
+
+        private final String[] keys;
+        private final Object[] values;
+
+        private Context(@Nullable Player player, @Nullable String[] placeholders) {
+            final int passed = ((placeholders != null) ? placeholders.length : 0);
+            String[] keys = new String[passed + 2];
+            Object[] values = new Object[passed + 2];
+            int count = 0;
+            boolean hasPlayer = false, hasUniqueId = false;
+            for (int i = -1; ++i < passed; ) {
+                final String placeholder = placeholders[i];
+                if (placeholder == null) continue;
+
+                final int split = placeholder.indexOf(':');
+                if (split <= 0) continue;
+
+                keys[count] = placeholder.substring(0, split);
+                values[count] = placeholder.substring(split + 1);
+                hasPlayer |= keys[count].equalsIgnoreCase("{player}");
+                hasUniqueId |= keys[count++].equalsIgnoreCase("{uuid}");
+            }
+
+            if (player != null) {
+                if (!hasPlayer) {
+                    keys[count] = "{player}";
+                    values[count++] = player.getName();
+                }
+
+                if (!hasUniqueId) {
+                    keys[count] = "{uuid}";
+                    values[count++] = player.getUniqueId();
+                }
+            }
+
+            if (count < keys.length) {
+                keys = Arrays.copyOf(keys, count);
+                values = Arrays.copyOf(values, count);
+            }
+
+            this.keys = keys;
+            this.values = values;
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package dev.zotware.roble.util.cooldowns;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class CooldownCodec {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * Encodes a player's cooldowns as {@code [version][id count][ids][entry count][base time][entries]} where each id is
+     * written once and every entry is {@code [id index][start - base][expiry - start + 1 (0 when unknown)]}, all as varints.
+     * Cooldowns that already expired are left out.
+     *
+     * @param store          The store to read from.
+     * @param playerUniqueId The player's unique id.
+     * @return The encoded cooldowns or NULL if the player has none left.
+     */
+    public static byte @Nullable [] encode(@NotNull CooldownStore store, @NotNull UUID playerUniqueId) {
+        final long now = System.currentTimeMillis();
+        final List<String> ids = new ArrayList<>();
+        final List<long[]> entries = new ArrayList<>(); // {id index, start, expiry}
+        long base = Long.MAX_VALUE;
+
+        for (int handle = -1; ++handle < store.getIdCount(); ) {
+            final long timestamp = store.get(playerUniqueId, handle);
+            if (timestamp == 0) continue;
+
+            final long expiry = store.getExpiry(playerUniqueId, handle);
+            if (expiry != 0 && expiry <= now) continue;
+
+            ids.add(store.getId(handle));
+            entries.add(new long[]{(ids.size() - 1), timestamp, expiry});
+            base = Math.min(base, timestamp);
+        }
+
+        if (entries.isEmpty()) return null;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(16 + (entries.size() * 16));
+        out.write(VERSION);
+        writeVarLong(out, ids.size());
+        for (String id : ids) {
+            final byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        writeVarLong(out, entries.size());
+        writeVarLong(out, base);
+        for (long[] entry : entries) {
+            writeVarLong(out, entry[0]);
+            writeVarLong(out, (entry[1] - base));
+            writeVarLong(out, ((entry[2] != 0) ? ((entry[2] - entry[1]) + 1) : 0));
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the cooldowns into the store, skipping those that expired while stored and scheduling the rest to expire.
+     *
+     * @param store          The store to write to.
+     * @param wheel          The wheel that expires the cooldowns (Can be NULL).
+     * @param playerUniqueId The player's unique id.
+     * @param bytes          The bytes from {@link #encode(CooldownStore, UUID)}.
+     * @throws IllegalArgumentException When the bytes are not valid encoded cooldowns.
+     */
+    public static void decode(@NotNull CooldownStore store, @Nullable CooldownWheel wheel, @NotNull UUID playerUniqueId, byte @NotNull [] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            final byte version = buffer.get();
+            if (version != VERSION) throw new IllegalArgumentException("Unknown cooldown encoding version " + version + ".");
+
+            final int[] handles = new int[(int) readVarLong(buffer)];
+            for (int i = -1; ++i < handles.length; ) {
+                final byte[] id = new byte[(int) readVarLong(buffer)];
+                buffer.get(id);
+                handles[i] = store.getHandle(new String(id, StandardCharsets.UTF_8));
+            }
+
+            final long now = System.currentTimeMillis();
+            final int entryCount = (int) readVarLong(buffer);
+            final long base = readVarLong(buffer);
+            for (int i = -1; ++i < entryCount; ) {
+                final int handle = handles[(int) readVarLong(buffer)];
+                final long timestamp = (base + readVarLong(buffer)), duration = readVarLong(buffer),
+                        expiry = ((duration != 0) ? ((timestamp + duration) - 1) : 0);
+                if (expiry != 0 && expiry <= now) continue;
+
+                store.set(playerUniqueId, handle, timestamp);
+                if (expiry != 0 && store.setExpiry(playerUniqueId, handle, timestamp, expiry) && wheel != null)
+                    wheel.schedule(playerUniqueId, handle, timestamp, expiry, null);
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("The encoded cooldowns are truncated or corrupt.", e);
+        }
+    }
+
+    private static void writeVarLong(@NotNull ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(@NotNull ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = buffer.get();
+            value |= ((long) (b & 0x7F) << shift);
+            if ((b & 0x80) == 0) return value;
+        }
+
+        throw new IllegalArgumentException("A varint in the encoded cooldowns is too long.");
+    }
+
+}
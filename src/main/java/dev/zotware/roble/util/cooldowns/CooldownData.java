@@ -0,0 +1,71 @@
+package dev.zotware.roble.util.cooldowns;
+
+import dev.zotware.roble.exceptions.StorageException;
+import dev.zotware.roble.util.storage.Storage;
+import dev.zotware.roble.util.storage.StorageData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class CooldownData extends StorageData {
+
+    private final String table;
+    private final UUID playerUniqueId;
+    private String encoded;
+
+    /**
+     * Creates the row holding one player's encoded cooldowns (Base64 so it fits a text column and flat files alike).
+     *
+     * @param storage        The storage the row is kept in.
+     * @param table          The table name.
+     * @param playerUniqueId The player's unique id.
+     * @throws StorageException When the structure is invalid.
+     */
+    public CooldownData(@NotNull Storage storage, @NotNull String table, @NotNull UUID playerUniqueId) throws StorageException {
+        super(storage);
+        this.table = table;
+        this.playerUniqueId = playerUniqueId;
+    }
+
+    @Override
+    public Map<String, Object> serialize() {
+        final Map<String, Object> valueMap = new HashMap<>();
+        if (getStorage().getType() == Storage.Type.FLAT) valueMap.put((playerUniqueId + ".cooldowns"), encoded);
+        else {
+            valueMap.put("uuid", playerUniqueId.toString());
+            valueMap.put("cooldowns", encoded);
+        }
+
+        return valueMap;
+    }
+
+    @Override
+    public String[] getStructure() {return new String[]{"uuid VARCHAR(36) PRIMARY KEY NOT NULL", "cooldowns TEXT"};}
+
+    @Override
+    public String getTable() {return table;}
+
+    // TAG getters & setters
+
+    public UUID getPlayerUniqueId() {return playerUniqueId;}
+
+    /**
+     * @return The bytes from {@link CooldownCodec#encode(CooldownStore, UUID)} or NULL if there are none.
+     */
+    public byte @Nullable [] getEncoded() {return ((encoded == null || encoded.isEmpty()) ? null : Base64.getDecoder().decode(encoded));}
+
+    /**
+     * @param encoded The encoded cooldowns (NULL stores an empty value, so cooldowns that were cleared are never read back).
+     */
+    public void setEncoded(byte @Nullable [] encoded) {this.encoded = ((encoded != null) ? Base64.getEncoder().encodeToString(encoded) : "");}
+
+    /**
+     * @param encoded The Base64 form as read from the storage.
+     */
+    public void setBase64(@Nullable String encoded) {this.encoded = encoded;}
+
+}
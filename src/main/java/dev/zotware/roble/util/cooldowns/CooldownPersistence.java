@@ -0,0 +1,160 @@
+package dev.zotware.roble.util.cooldowns;
+
+import dev.zotware.roble.RoblePlugin;
+import dev.zotware.roble.exceptions.StorageException;
+import dev.zotware.roble.util.storage.Storage;
+import dev.zotware.roble.util.storage.StorageData;
+import dev.zotware.roble.util.storage.types.SQLStorage;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+public class CooldownPersistence {
+
+    private final RoblePlugin INSTANCE;
+    private final Storage storage;
+    private final String table;
+    private final Map<UUID, CompletableFuture<Void>> pendingSaves;
+    private final Map<UUID, Long> preloaded; // loaded during pre-login, the login has not been accepted yet
+
+    /**
+     * Keeps each player's cooldowns in the storage as one compact row, loaded during pre-login and saved on quit.
+     *
+     * @param instance The plugin instance.
+     * @param storage  The registered storage the rows are kept in.
+     * @param table    The table name.
+     */
+    public CooldownPersistence(@NotNull RoblePlugin instance, @NotNull Storage storage, @NotNull String table) {
+        this.INSTANCE = instance;
+        this.storage = storage;
+        this.table = table;
+        this.pendingSaves = new ConcurrentHashMap<>();
+        this.preloaded = new ConcurrentHashMap<>();
+        INSTANCE.getServer().getScheduler().runTaskTimer(INSTANCE, this::discardAbandoned, 1200, 1200);
+
+        if (storage instanceof SQLStorage) {
+            try {
+                ((SQLStorage) storage).createTable(table, createData(UUID.randomUUID()).getStructure());
+            } catch (StorageException e) {e.printStackTrace();}
+        }
+    }
+
+    /**
+     * Loads the player's cooldowns into the store, blocking (Called from the asynchronous pre-login event).
+     * Waits for a save still running from the player's previous session first so it is never read stale.
+     * The cooldowns are dropped again when the login is refused, see {@link #completeLogin(UUID, boolean)}.
+     *
+     * @param playerUniqueId The player's unique id.
+     */
+    public void load(@NotNull UUID playerUniqueId) {
+        final CompletableFuture<Void> pendingSave = pendingSaves.get(playerUniqueId);
+        if (pendingSave != null) {
+            try {
+                pendingSave.get(INSTANCE.getStorageDrainTimeout(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                INSTANCE.getLogger().warning("The cooldowns of " + playerUniqueId + " were loaded before their last save finished.");
+            } catch (Exception ignored) {}
+        }
+
+        try {
+            final CooldownData data = createData(playerUniqueId);
+            final Map<String, Object> row = data.find(playerUniqueId.toString());
+            if (row == null) return;
+
+            final Object encoded = row.get("cooldowns");
+            if (encoded == null || encoded.toString().isEmpty()) return;
+
+            data.setBase64(encoded.toString());
+            CooldownCodec.decode(INSTANCE.getCooldownStore(), INSTANCE.getCooldownWheel(), playerUniqueId, data.getEncoded());
+            preloaded.put(playerUniqueId, System.currentTimeMillis());
+        } catch (StorageException | IllegalArgumentException e) {
+            INSTANCE.getLogger().log(Level.WARNING, "The cooldowns of " + playerUniqueId + " were unable to be loaded.", e);
+        }
+    }
+
+    /**
+     * Keeps the cooldowns loaded during pre-login once the login is accepted, otherwise removes them from the store
+     * without saving (Must be called from the server thread).
+     *
+     * @param playerUniqueId The player's unique id.
+     * @param allowed        Whether the login was accepted.
+     */
+    public void completeLogin(@NotNull UUID playerUniqueId, boolean allowed) {
+        if (preloaded.remove(playerUniqueId) != null && !allowed && INSTANCE.getServer().getPlayer(playerUniqueId) == null)
+            INSTANCE.getCooldownStore().clear(playerUniqueId);
+    }
+
+    /**
+     * Removes the cooldowns loaded for logins that never completed (e.g. the connection dropped after pre-login).
+     */
+    private void discardAbandoned() {
+        final long cutoff = (System.currentTimeMillis() - 60_000);
+        for (Map.Entry<UUID, Long> entry : preloaded.entrySet())
+            if (entry.getValue() < cutoff) completeLogin(entry.getKey(), false);
+    }
+
+    /**
+     * Encodes the player's cooldowns, removes them from the store and saves them on the I/O executor.
+     *
+     * @param playerUniqueId The player's unique id.
+     * @return The future completed once the cooldowns are saved.
+     */
+    public CompletableFuture<Void> unload(@NotNull UUID playerUniqueId) {
+        final CooldownData data;
+        try {
+            data = createEncodedData(playerUniqueId);
+        } catch (StorageException e) {
+            e.printStackTrace();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        INSTANCE.getCooldownStore().clear(playerUniqueId);
+        final CompletableFuture<Void> save = data.saveAsync();
+        pendingSaves.put(playerUniqueId, save);
+        save.whenComplete((result, throwable) -> {
+            pendingSaves.remove(playerUniqueId, save);
+            if (throwable != null)
+                INSTANCE.getLogger().log(Level.WARNING, "The cooldowns of " + playerUniqueId + " were unable to be saved.", throwable);
+        });
+        return save;
+    }
+
+    /**
+     * Saves every player's cooldowns in one batch on the calling thread (Used when the plugin disables).
+     */
+    public void saveAll() {
+        final List<StorageData> dataList = new ArrayList<>();
+        for (UUID playerUniqueId : INSTANCE.getCooldownStore().getPlayers()) {
+            try {
+                dataList.add(createEncodedData(playerUniqueId));
+            } catch (StorageException e) {e.printStackTrace();}
+        }
+
+        StorageData.saveAll(dataList);
+    }
+
+    private CooldownData createEncodedData(@NotNull UUID playerUniqueId) throws StorageException {
+        final CooldownData data = createData(playerUniqueId);
+        data.setEncoded(CooldownCodec.encode(INSTANCE.getCooldownStore(), playerUniqueId));
+        return data;
+    }
+
+    private CooldownData createData(@NotNull UUID playerUniqueId) throws StorageException {
+        return new CooldownData(storage, table, playerUniqueId);
+    }
+
+    // TAG getters & setters
+
+    public Storage getStorage() {return storage;}
+
+    public String getTable() {return table;}
+
+}
@@ -0,0 +1,345 @@
+package dev.zotware.roble.util.cooldowns;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class CooldownStore {
+
+    private final Map<String, Integer> handles;
+    private final Map<UUID, PlayerCooldowns> players;
+    private final Map<UUID, Map<String, Long>> mapView;
+    private volatile String[] ids;
+
+    /**
+     * Creates an empty store. Cooldown ids are interned to int handles once, and each player's timestamps (and expiry
+     * times when known) are kept in a primitive array indexed by handle, so reads never box, hash strings or lock.
+     */
+    public CooldownStore() {
+        this.handles = new ConcurrentHashMap<>();
+        this.players = new ConcurrentHashMap<>();
+        this.mapView = new StoreView();
+        this.ids = new String[0];
+    }
+
+    /**
+     * Gets the handle of the cooldown id, interning it on first use (Cache the handle to skip the lookup entirely).
+     *
+     * @param cooldownId The id of the cooldown.
+     * @return The handle.
+     */
+    public int getHandle(@NotNull String cooldownId) {
+        final Integer handle = handles.get(cooldownId);
+        if (handle != null) return handle;
+
+        synchronized (handles) {
+            final Integer existing = handles.get(cooldownId);
+            if (existing != null) return existing;
+
+            final String[] grown = Arrays.copyOf(ids, (ids.length + 1));
+            grown[ids.length] = cooldownId;
+            ids = grown;
+            handles.put(cooldownId, ids.length - 1);
+            return (ids.length - 1);
+        }
+    }
+
+    /**
+     * @param cooldownId The id of the cooldown.
+     * @return The handle or -1 if the id was never interned (Lookups with -1 find nothing).
+     */
+    public int findHandle(@NotNull String cooldownId) {
+        final Integer handle = handles.get(cooldownId);
+        return ((handle != null) ? handle : -1);
+    }
+
+    /**
+     * @param handle The handle.
+     * @return The cooldown id the handle was interned from or NULL if it is unknown.
+     */
+    public @Nullable String getId(int handle) {
+        final String[] current = ids;
+        return ((handle >= 0 && handle < current.length) ? current[handle] : null);
+    }
+
+    /**
+     * @param playerUniqueId The player's unique id.
+     * @param handle         The cooldown handle.
+     * @return The timestamp the cooldown was last set to or 0 if it is not set.
+     */
+    public long get(@NotNull UUID playerUniqueId, int handle) {
+        final PlayerCooldowns cooldowns = players.get(playerUniqueId);
+        return ((cooldowns != null) ? cooldowns.get(handle) : 0);
+    }
+
+    /**
+     * Sets the cooldown's start time, forgetting any expiry registered for the previous start time.
+     *
+     * @param playerUniqueId The player's unique id.
+     * @param handle         The cooldown handle.
+     * @param timestamp      The timestamp in milliseconds (0 clears the cooldown).
+     */
+    public void set(@NotNull UUID playerUniqueId, int handle, long timestamp) {
+        if (handle < 0) return;
+        if (timestamp == 0) {
+            remove(playerUniqueId, handle);
+            return;
+        }
+
+        players.compute(playerUniqueId, (uuid, cooldowns) -> {
+            if (cooldowns == null) cooldowns = new PlayerCooldowns();
+            cooldowns.set(handle, timestamp, 0);
+            return cooldowns;
+        });
+    }
+
+    /**
+     * @param playerUniqueId The player's unique id.
+     * @param handle         The cooldown handle.
+     * @return The time the cooldown expires at or 0 if it is not known.
+     */
+    public long getExpiry(@NotNull UUID playerUniqueId, int handle) {
+        final PlayerCooldowns cooldowns = players.get(playerUniqueId);
+        return ((cooldowns != null) ? cooldowns.getExpiry(handle) : 0);
+    }
+
+    /**
+     * Records when the cooldown started at the timestamp expires (Only ever extends a known expiry).
+     *
+     * @param playerUniqueId The player's unique id.
+     * @param handle         The cooldown handle.
+     * @param timestamp      The start time the expiry belongs to.
+     * @param expiresAt      The time the cooldown expires at.
+     * @return Whether the expiry was recorded (False when the cooldown was restarted, cleared or already expires later).
+     */
+    public boolean setExpiry(@NotNull UUID playerUniqueId, int handle, long timestamp, long expiresAt) {
+        final PlayerCooldowns cooldowns = players.get(playerUniqueId);
+        return (cooldowns != null && cooldowns.setExpiry(handle, timestamp, expiresAt));
+    }
+
+    /**
+     * @param playerUniqueId The player's unique id.
+     * @param handle         The cooldown handle.
+     */
+    public void remove(@NotNull UUID playerUniqueId, int handle) {remove(playerUniqueId, handle, 0);}
+
+    /**
+     * Clears the cooldown, dropping the player's entry entirely once none of their cooldowns are set.
+     *
+     * @param playerUniqueId The player's unique id.
+     * @param handle         The cooldown handle.
+     * @param timestamp      The start time the cooldown must still have (0 removes it regardless).
+     * @return Whether the cooldown was removed.
+     */
+    public boolean remove(@NotNull UUID playerUniqueId, int handle, long timestamp) {
+        final boolean[] removed = new boolean[1];
+        players.computeIfPresent(playerUniqueId, (uuid, cooldowns) -> {
+            final long current = cooldowns.get(handle);
+            if (current != 0 && (timestamp == 0 || current == timestamp)) {
+                cooldowns.set(handle, 0, 0);
+                removed[0] = true;
+            }
+
+            return (cooldowns.isEmpty() ? null : cooldowns);
+        });
+        return removed[0];
+    }
+
+    /**
+     * @param playerUniqueId The player's unique id.
+     * @param handle         The cooldown handle.
+     * @param duration       The cooldown duration in milliseconds.
+     * @return The milliseconds left on the cooldown (0 when it is not set or has passed).
+     */
+    public long getRemaining(@NotNull UUID playerUniqueId, int handle, long duration) {
+        final long timestamp = get(playerUniqueId, handle);
+        return ((timestamp != 0) ? Math.max(0, (timestamp + duration) - System.currentTimeMillis()) : 0);
+    }
+
+    /**
+     * @param playerUniqueId The player's unique id.
+     * @return Every set cooldown of the player keyed by cooldown id.
+     */
+    public Map<String, Long> getAll(@NotNull UUID playerUniqueId) {
+        final PlayerCooldowns cooldowns = players.get(playerUniqueId);
+        if (cooldowns == null) return Collections.emptyMap();
+
+        final Map<String, Long> all = new LinkedHashMap<>();
+        final AtomicLongArray values = cooldowns.values;
+        for (int i = -1; ++i < (values.length() / 2); ) {
+            final long timestamp = values.get(i * 2);
+            if (timestamp != 0) all.put(getId(i), timestamp);
+        }
+
+        return all;
+    }
+
+    /**
+     * Removes every cooldown without a known expiry that was set before the cutoff (Those with one are expired by the wheel).
+     *
+     * @param setBefore The cutoff timestamp in milliseconds.
+     * @return The amount of cooldowns removed.
+     */
+    public int purgeUntimed(long setBefore) {
+        int removed = 0;
+        for (Map.Entry<UUID, PlayerCooldowns> entry : players.entrySet()) {
+            final AtomicLongArray values = entry.getValue().values;
+            for (int i = -1; ++i < (values.length() / 2); ) {
+                final long timestamp = values.get(i * 2);
+                if (timestamp != 0 && timestamp < setBefore && values.get((i * 2) + 1) == 0 && remove(entry.getKey(), i, timestamp))
+                    removed++;
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Removes every cooldown of the player (e.g. once their data is saved and they left).
+     *
+     * @param playerUniqueId The player's unique id.
+     */
+    public void clear(@NotNull UUID playerUniqueId) {players.remove(playerUniqueId);}
+
+    /**
+     * @return The cooldown timestamps keyed by player and cooldown id, written through to the store
+     * (Iterating copies each player's cooldowns, prefer the handle based methods).
+     */
+    public Map<UUID, Map<String, Long>> asMap() {return mapView;}
+
+    // TAG getters & setters
+
+    /**
+     * @return The players that have cooldowns stored.
+     */
+    public Set<UUID> getPlayers() {return Collections.unmodifiableSet(players.keySet());}
+
+    /**
+     * @return The amount of interned cooldown ids.
+     */
+    public int getIdCount() {return ids.length;}
+
+    private class StoreView extends AbstractMap<UUID, Map<String, Long>> {
+
+        @Override
+        public Map<String, Long> get(Object key) {return (containsKey(key) ? new PlayerView((UUID) key) : null);}
+
+        @Override
+        public boolean containsKey(Object key) {return (key instanceof UUID && players.containsKey(key));}
+
+        @Override
+        public Map<String, Long> put(UUID key, Map<String, Long> value) {
+            final Map<String, Long> values = new HashMap<>(value), previous = remove(key); // the value may be a view of the key
+            for (Map.Entry<String, Long> entry : values.entrySet())
+                if (entry.getValue() != null) set(key, getHandle(entry.getKey()), entry.getValue());
+            return previous;
+        }
+
+        @Override
+        public Map<String, Long> remove(Object key) {
+            if (!containsKey(key)) return null;
+
+            final Map<String, Long> previous = getAll((UUID) key);
+            CooldownStore.this.clear((UUID) key);
+            return previous;
+        }
+
+        @Override
+        public void clear() {players.clear();}
+
+        @Override
+        public Set<Entry<UUID, Map<String, Long>>> entrySet() {
+            final Set<Entry<UUID, Map<String, Long>>> entries = new LinkedHashSet<>();
+            for (UUID playerUniqueId : players.keySet()) entries.add(new SimpleImmutableEntry<>(playerUniqueId, new PlayerView(playerUniqueId)));
+            return Collections.unmodifiableSet(entries);
+        }
+
+    }
+
+    private class PlayerView extends AbstractMap<String, Long> {
+
+        private final UUID playerUniqueId;
+
+        private PlayerView(@NotNull UUID playerUniqueId) {this.playerUniqueId = playerUniqueId;}
+
+        @Override
+        public Long get(Object key) {
+            final long timestamp = ((key instanceof String) ? CooldownStore.this.get(playerUniqueId, findHandle((String) key)) : 0);
+            return ((timestamp != 0) ? timestamp : null);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {return (get(key) != null);}
+
+        @Override
+        public Long put(String key, Long value) {
+            final Long previous = get(key);
+            set(playerUniqueId, getHandle(key), ((value != null) ? value : 0));
+            return previous;
+        }
+
+        @Override
+        public Long remove(Object key) {
+            final Long previous = get(key);
+            if (previous != null) CooldownStore.this.remove(playerUniqueId, findHandle((String) key));
+            return previous;
+        }
+
+        @Override
+        public void clear() {CooldownStore.this.clear(playerUniqueId);}
+
+        @Override
+        public Set<Entry<String, Long>> entrySet() {return Collections.unmodifiableMap(getAll(playerUniqueId)).entrySet();}
+
+    }
+
+    private static class PlayerCooldowns {
+
+        private volatile AtomicLongArray values; // {timestamp, expiry} per handle
+
+        private PlayerCooldowns() {this.values = new AtomicLongArray(16);}
+
+        private long get(int handle) {
+            final AtomicLongArray current = values;
+            return ((handle >= 0 && (handle * 2) < current.length()) ? current.get(handle * 2) : 0);
+        }
+
+        private long getExpiry(int handle) {
+            final AtomicLongArray current = values;
+            return ((handle >= 0 && (handle * 2) < current.length()) ? current.get((handle * 2) + 1) : 0);
+        }
+
+        // writers lock so a write can never land in an array that is being replaced
+        private synchronized void set(int handle, long timestamp, long expiry) {
+            AtomicLongArray current = values;
+            if ((handle * 2) >= current.length()) {
+                if (timestamp == 0) return;
+
+                final AtomicLongArray grown = new AtomicLongArray(Math.max(((handle + 1) * 2), (current.length() * 2)));
+                for (int i = -1; ++i < current.length(); ) grown.set(i, current.get(i));
+                values = (current = grown);
+            }
+
+            current.set(handle * 2, timestamp);
+            current.set((handle * 2) + 1, expiry);
+        }
+
+        private synchronized boolean setExpiry(int handle, long timestamp, long expiry) {
+            if (get(handle) != timestamp || getExpiry(handle) >= expiry) return false;
+
+            values.set((handle * 2) + 1, expiry);
+            return true;
+        }
+
+        private synchronized boolean isEmpty() {
+            final AtomicLongArray current = values;
+            for (int i = 0; i < current.length(); i += 2) if (current.get(i) != 0) return false;
+            return true;
+        }
+
+    }
+
+}
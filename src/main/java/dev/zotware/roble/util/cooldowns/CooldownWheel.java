@@ -0,0 +1,160 @@
+package dev.zotware.roble.util.cooldowns;
+
+import dev.zotware.roble.RoblePlugin;
+import dev.zotware.roble.util.cooldowns.events.CooldownExpireEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+public class CooldownWheel {
+
+    private static final int SLOT_BITS = 6, SLOTS = (1 << SLOT_BITS), LEVELS = 4;
+    private static final long TICK_MILLIS = 50, MAX_DELAY = ((1L << (SLOT_BITS * LEVELS)) - 1);
+
+    private final RoblePlugin INSTANCE;
+    private final CooldownStore store;
+    private final Queue<Expiry> incoming;
+    private final List<List<Expiry>> slots;
+    private final LongSupplier clock;
+    private final long startTime;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates a hierarchical timing wheel (4 levels of 64 slots, one slot per server tick at the lowest level,
+     * reaching about 9 days before entries are re-queued) that purges expired cooldowns from the store.
+     * Scheduling is safe from any thread, {@link #tick()} must be called from the server thread.
+     *
+     * @param instance The plugin instance.
+     * @param store    The store the cooldowns are purged from.
+     */
+    public CooldownWheel(@NotNull RoblePlugin instance, @NotNull CooldownStore store) {
+        this(instance, store, System::currentTimeMillis);
+    }
+
+    CooldownWheel(@NotNull RoblePlugin instance, @NotNull CooldownStore store, @NotNull LongSupplier clock) {
+        this.INSTANCE = instance;
+        this.store = store;
+        this.incoming = new ConcurrentLinkedQueue<>();
+        this.slots = new ArrayList<>(SLOTS * LEVELS);
+        for (int i = -1; ++i < (SLOTS * LEVELS); ) slots.add(new ArrayList<>());
+        this.clock = clock;
+        this.startTime = clock.getAsLong();
+    }
+
+    /**
+     * Registers the time the cooldown expires at. When it does, the cooldown is removed from the store,
+     * a {@link CooldownExpireEvent} is called and the callback is run (Both on the server thread).
+     * Nothing happens if the cooldown was restarted or cleared in the meantime.
+     *
+     * @param playerUniqueId The player's unique id.
+     * @param handle         The cooldown handle.
+     * @param timestamp      The start time of the cooldown.
+     * @param expiresAt      The time the cooldown expires at.
+     * @param callback       The callback run once the cooldown expired (Can be NULL).
+     */
+    public void schedule(@NotNull UUID playerUniqueId, int handle, long timestamp, long expiresAt, @Nullable Runnable callback) {
+        incoming.add(new Expiry(playerUniqueId, handle, timestamp, expiresAt, callback));
+    }
+
+    /**
+     * Advances the wheel to the current time, expiring every cooldown that ended.
+     */
+    public void tick() {
+        final List<Expiry> expired = new ArrayList<>();
+        Expiry queued;
+        while ((queued = incoming.poll()) != null) place(queued, expired);
+
+        final long targetTick = ((clock.getAsLong() - startTime) / TICK_MILLIS);
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            int crossed = 0; // the higher levels whose slot boundary was reached are cascaded into the lower ones
+            while ((crossed + 1) < LEVELS && (currentTick & ((1L << (SLOT_BITS * (crossed + 1))) - 1)) == 0) crossed++;
+            for (int level = crossed; level >= 1; level--) {
+                final List<Expiry> slot = getSlot(level, (int) ((currentTick >>> (SLOT_BITS * level)) & (SLOTS - 1)));
+                if (slot.isEmpty()) continue;
+
+                final List<Expiry> cascaded = new ArrayList<>(slot);
+                slot.clear();
+                size -= cascaded.size();
+                for (Expiry expiry : cascaded) place(expiry, expired);
+            }
+
+            final List<Expiry> slot = getSlot(0, (int) (currentTick & (SLOTS - 1)));
+            if (slot.isEmpty()) continue;
+
+            final List<Expiry> due = new ArrayList<>(slot);
+            slot.clear();
+            size -= due.size();
+            for (Expiry expiry : due) place(expiry, expired);
+        }
+
+        for (Expiry expiry : expired) expire(expiry);
+    }
+
+    private void place(@NotNull Expiry expiry, @NotNull List<Expiry> expired) {
+        final long deadline = Math.max(0, ((expiry.expiresAt - startTime) + (TICK_MILLIS - 1)) / TICK_MILLIS),
+                delay = Math.min(MAX_DELAY, (deadline - currentTick)), placedTick = (currentTick + delay);
+        if (delay <= 0) {
+            expired.add(expiry);
+            return;
+        }
+
+        int level = 0;
+        while ((level + 1) < LEVELS && delay >= (1L << (SLOT_BITS * (level + 1)))) level++;
+
+        getSlot(level, (int) ((placedTick >>> (SLOT_BITS * level)) & (SLOTS - 1))).add(expiry);
+        size++;
+    }
+
+    private void expire(@NotNull Expiry expiry) {
+        if (store.getExpiry(expiry.playerUniqueId, expiry.handle) != expiry.expiresAt
+                || !store.remove(expiry.playerUniqueId, expiry.handle, expiry.timestamp)) return;
+
+        try {
+            final String cooldownId = store.getId(expiry.handle);
+            if (cooldownId != null && CooldownExpireEvent.getHandlerList().getRegisteredListeners().length > 0)
+                INSTANCE.getServer().getPluginManager().callEvent(new CooldownExpireEvent(expiry.playerUniqueId, cooldownId,
+                        expiry.timestamp, expiry.expiresAt));
+
+            if (expiry.callback != null) expiry.callback.run();
+        } catch (RuntimeException e) {
+            INSTANCE.getLogger().log(Level.WARNING, "A cooldown expiry handler failed.", e);
+        }
+    }
+
+    private List<Expiry> getSlot(int level, int index) {return slots.get((level * SLOTS) + index);}
+
+    // TAG getters & setters
+
+    /**
+     * @return The amount of expiries placed in the wheel (Excluding those queued since the last tick).
+     */
+    public int size() {return size;}
+
+    private static class Expiry {
+
+        private final UUID playerUniqueId;
+        private final int handle;
+        private final long timestamp, expiresAt;
+        private final Runnable callback;
+
+        private Expiry(@NotNull UUID playerUniqueId, int handle, long timestamp, long expiresAt, @Nullable Runnable callback) {
+            this.playerUniqueId = playerUniqueId;
+            this.handle = handle;
+            this.timestamp = timestamp;
+            this.expiresAt = expiresAt;
+            this.callback = callback;
+        }
+
+    }
+
+}
@@ -0,0 +1,38 @@
+package dev.zotware.roble.util.cooldowns.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+public class CooldownExpireEvent extends Event {
+
+    private static final HandlerList handlers = new HandlerList();
+
+    private final UUID playerUniqueId;
+    private final String cooldownId;
+    private final long startedAt, expiredAt;
+
+    public CooldownExpireEvent(@NotNull UUID playerUniqueId, @NotNull String cooldownId, long startedAt, long expiredAt) {
+        this.playerUniqueId = playerUniqueId;
+        this.cooldownId = cooldownId;
+        this.startedAt = startedAt;
+        this.expiredAt = expiredAt;
+    }
+
+    // TAG getters & setters
+
+    public static HandlerList getHandlerList() {return handlers;}
+
+    public @NotNull HandlerList getHandlers() {return handlers;}
+
+    public UUID getPlayerUniqueId() {return playerUniqueId;}
+
+    public String getCooldownId() {return cooldownId;}
+
+    public long getStartedAt() {return startedAt;}
+
+    public long getExpiredAt() {return expiredAt;}
+
+}
@@ -2,6 +2,7 @@ package dev.zotware.roble.util.gui;
 
 import dev.zotware.roble.RoblePlugin;
 import dev.zotware.roble.util.Pair;
+import dev.zotware.roble.util.scheduling.TickDispatcher;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
@@ -12,12 +13,14 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MenuInstance {
 
     private final Inventory inventory;
     private final String title;
     private final HashMap<UUID, Page> currentPageMap;
+    private final Set<UUID> pendingRefreshes = ConcurrentHashMap.newKeySet();
     private Page firstPage;
     private ItemStack backgroundItem;
     private Pair<Integer, ItemStack> nextPageItem, previousPageItem;
@@ -105,6 +108,22 @@ public class MenuInstance {
         player.updateInventory();
     }
 
+    /**
+     * Reloads the player's current page through the {@link TickDispatcher} (Requests made before it ran are merged, safe from any thread).
+     *
+     * @param player The player viewing the menu.
+     */
+    public void refresh(@NotNull Player player) {
+        if (!pendingRefreshes.add(player.getUniqueId())) return;
+
+        RoblePlugin.INSTANCE.getTickDispatcher().submit(TickDispatcher.Priority.LOW, () -> {
+            pendingRefreshes.remove(player.getUniqueId());
+
+            final Page page = getCurrentPage(player.getUniqueId());
+            if (page != null && player.isOnline() && RoblePlugin.INSTANCE.getMenuInstance(player) == this) load(player, page);
+        });
+    }
+
     /**
      * @param indexPage The page to insert the passed page before.
      * @param page      The page to insert.
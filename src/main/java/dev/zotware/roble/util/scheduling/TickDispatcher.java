@@ -0,0 +1,167 @@
+package dev.zotware.roble.util.scheduling;
+
+import dev.zotware.roble.RoblePlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+public class TickDispatcher implements Executor {
+
+    private final RoblePlugin INSTANCE;
+    private final Queue<Runnable>[] queues; // indexed by Priority#ordinal()
+    private final AtomicInteger[] sizes;
+    private final AtomicInteger peakSize;
+    private final AtomicLong executed, failed;
+    private volatile long budgetNanos, lastTickNanos;
+    private long overrunTicks;
+
+    /**
+     * Creates a work queue drained on the server thread once per tick. Tasks run by priority (FIFO within one) until the
+     * per-tick time budget is used up, the rest carries over to the next ticks. Submitting is safe from any thread.
+     *
+     * @param instance The plugin instance.
+     */
+    @SuppressWarnings("unchecked")
+    public TickDispatcher(@NotNull RoblePlugin instance) {
+        this.INSTANCE = instance;
+        this.queues = new Queue[Priority.values().length];
+        this.sizes = new AtomicInteger[queues.length];
+        for (int i = -1; ++i < queues.length; ) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+            sizes[i] = new AtomicInteger();
+        }
+
+        this.peakSize = new AtomicInteger();
+        this.executed = new AtomicLong();
+        this.failed = new AtomicLong();
+        setBudgetMillis(5);
+        INSTANCE.getServer().getScheduler().runTaskTimer(INSTANCE, this::tick, 1, 1);
+    }
+
+    /**
+     * Queues the task with {@link Priority#NORMAL}.
+     *
+     * @param task The task.
+     */
+    @Override
+    public void execute(@NotNull Runnable task) {submit(Priority.NORMAL, task);}
+
+    /**
+     * @param priority The priority.
+     * @param task     The task.
+     */
+    public void submit(@NotNull Priority priority, @NotNull Runnable task) {
+        queues[priority.ordinal()].add(task);
+        sizes[priority.ordinal()].incrementAndGet();
+        peakSize.accumulateAndGet(getQueueSize(), Math::max);
+    }
+
+    /**
+     * @param priority The priority the returned executor queues with.
+     * @return An executor queueing its tasks here (e.g. for future callbacks).
+     */
+    public Executor executor(@NotNull Priority priority) {return (task -> submit(priority, task));}
+
+    /**
+     * Runs queued tasks until the budget is used up (At least one task always runs so work never stalls).
+     */
+    public void tick() {
+        final long start = System.nanoTime(), budget = budgetNanos;
+        int ran = 0;
+        Runnable task;
+        while ((ran == 0 || (System.nanoTime() - start) < budget) && (task = poll()) != null) {
+            run(task);
+            ran++;
+        }
+
+        if (getQueueSize() > 0) overrunTicks++;
+        lastTickNanos = (System.nanoTime() - start);
+    }
+
+    /**
+     * Runs every queued task on the calling thread regardless of the budget, including those queued meanwhile
+     * (Used when the plugin disables, as ticks no longer run then).
+     *
+     * @param timeout The maximum milliseconds to spend.
+     * @return The amount of tasks left unrun.
+     */
+    public int drain(long timeout) {
+        final long deadline = (System.nanoTime() + (Math.max(1, timeout) * 1_000_000L));
+        Runnable task;
+        while (System.nanoTime() < deadline && (task = poll()) != null) run(task);
+        return getQueueSize();
+    }
+
+    private Runnable poll() {
+        for (int i = -1; ++i < queues.length; ) {
+            final Runnable task = queues[i].poll();
+            if (task == null) continue;
+
+            sizes[i].decrementAndGet();
+            return task;
+        }
+
+        return null;
+    }
+
+    private void run(@NotNull Runnable task) {
+        executed.incrementAndGet();
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            INSTANCE.getLogger().log(Level.WARNING, "A dispatched task failed.", e);
+        }
+    }
+
+    // TAG getters & setters
+
+    /**
+     * @return The amount of tasks waiting.
+     */
+    public int getQueueSize() {
+        int size = 0;
+        for (AtomicInteger queueSize : sizes) size += queueSize.get();
+        return size;
+    }
+
+    /**
+     * @param priority The priority.
+     * @return The amount of tasks of the priority waiting.
+     */
+    public int getQueueSize(@NotNull Priority priority) {return sizes[priority.ordinal()].get();}
+
+    /**
+     * @return The most tasks that were waiting at once.
+     */
+    public int getPeakQueueSize() {return peakSize.get();}
+
+    public long getExecuted() {return executed.get();}
+
+    public long getFailed() {return failed.get();}
+
+    /**
+     * @return The amount of ticks that ended with work left over.
+     */
+    public long getOverrunTicks() {return overrunTicks;}
+
+    /**
+     * @return The nanoseconds the last tick spent running tasks.
+     */
+    public long getLastTickNanos() {return lastTickNanos;}
+
+    public long getBudgetNanos() {return budgetNanos;}
+
+    /**
+     * @param budgetMillis The milliseconds of each tick tasks may use.
+     */
+    public void setBudgetMillis(double budgetMillis) {this.budgetNanos = Math.max(0, (long) (budgetMillis * 1_000_000D));}
+
+    public enum Priority {HIGH, NORMAL, LOW}
+
+}
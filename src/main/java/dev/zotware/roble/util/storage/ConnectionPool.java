@@ -0,0 +1,416 @@
+package dev.zotware.roble.util.storage;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ConnectionPool {
+
+    private static final long VALIDATION_BYPASS = 500L, HOUSEKEEPING_PERIOD = 30_000L;
+
+    private final String url, username, password;
+    private final int minimumSize, maximumSize;
+    private final Logger logger;
+    private final LinkedBlockingDeque<PooledConnection> idle;
+    private final Set<PooledConnection> borrowed;
+    private final AtomicInteger totalSize;
+    private final ScheduledExecutorService housekeeper;
+
+    private long connectionTimeout, idleTimeout, leakThreshold;
+    private int validationTimeout, statementCacheSize;
+    private boolean readOnly;
+    private ConnectionInitializer initializer;
+    private volatile boolean closed;
+
+    /**
+     * Creates a bounded pool of JDBC connections.
+     *
+     * @param url         The JDBC url connections are opened with.
+     * @param username    The username (Can be NULL for file based drivers).
+     * @param password    The password (Can be NULL for file based drivers).
+     * @param minimumSize The amount of connections kept open at all times.
+     * @param maximumSize The maximum amount of connections that can be open at once.
+     * @param logger      The logger used to report leaks and failures.
+     */
+    public ConnectionPool(@NotNull String url, @Nullable String username, @Nullable String password,
+                          int minimumSize, int maximumSize, @NotNull Logger logger) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maximumSize = Math.max(1, maximumSize);
+        this.minimumSize = Math.max(0, Math.min(minimumSize, this.maximumSize));
+        this.logger = logger;
+        this.idle = new LinkedBlockingDeque<>();
+        this.borrowed = ConcurrentHashMap.newKeySet();
+        this.totalSize = new AtomicInteger();
+
+        setConnectionTimeout(30_000L);
+        setIdleTimeout(600_000L);
+        setLeakThreshold(0L);
+        setValidationTimeout(5);
+        setStatementCacheSize(0);
+        setReadOnly(false);
+        setInitializer(null);
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "Roble-Pool-Housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the minimum amount of connections and starts the idle eviction and leak detection task.
+     *
+     * @throws SQLException When the initial connections fail to open.
+     */
+    public void start() throws SQLException {
+        fill();
+        housekeeper.scheduleAtFixedRate(this::housekeep, HOUSEKEEPING_PERIOD, HOUSEKEEPING_PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool (Closing the returned connection hands it back to the pool).
+     *
+     * @return The validated connection.
+     * @throws SQLException When the pool is closed, exhausted past the connection timeout, or a connection can not be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        final long deadline = (System.currentTimeMillis() + getConnectionTimeout());
+        while (true) {
+            if (isClosed()) throw new SQLException("The connection pool has been closed.");
+
+            PooledConnection pooledConnection = idle.pollFirst();
+            if (pooledConnection == null) {
+                final int currentSize = totalSize.get();
+                if (currentSize < maximumSize && totalSize.compareAndSet(currentSize, currentSize + 1))
+                    return lease(create());
+
+                final long remaining = (deadline - System.currentTimeMillis());
+                if (remaining <= 0) throw new SQLTimeoutException("Timed out after " + getConnectionTimeout()
+                        + "ms waiting for a connection (active: " + getActiveCount() + ", maximum: " + maximumSize + ").");
+
+                try {
+                    pooledConnection = idle.pollFirst(remaining, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a connection.", e);
+                }
+
+                if (pooledConnection == null) continue;
+            }
+
+            if (isUsable(pooledConnection)) return lease(pooledConnection);
+            destroy(pooledConnection);
+        }
+    }
+
+    /**
+     * Closes every connection and stops the housekeeping task. Borrowed connections are closed once returned.
+     */
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        housekeeper.shutdownNow();
+
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idle.pollFirst()) != null) destroy(pooledConnection);
+    }
+
+    // TAG pool helpers
+
+    private PooledConnection create() throws SQLException {
+        try {
+            final Connection connection = ((username == null) ? DriverManager.getConnection(url)
+                    : DriverManager.getConnection(url, username, password));
+            if (isReadOnly()) connection.setReadOnly(true);
+            if (getInitializer() != null) getInitializer().initialize(connection);
+            return new PooledConnection(connection);
+        } catch (SQLException | RuntimeException e) {
+            totalSize.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void fill() throws SQLException {
+        while (!isClosed()) {
+            final int currentSize = totalSize.get();
+            if (currentSize >= minimumSize) return;
+            if (totalSize.compareAndSet(currentSize, currentSize + 1)) idle.offerLast(create());
+        }
+    }
+
+    private boolean isUsable(@NotNull PooledConnection pooledConnection) {
+        if (getIdleTimeout() > 0 && totalSize.get() > minimumSize
+                && (System.currentTimeMillis() - pooledConnection.lastUsed) > getIdleTimeout()) return false;
+        if ((System.currentTimeMillis() - pooledConnection.lastUsed) < VALIDATION_BYPASS) return true;
+
+        try {
+            return pooledConnection.connection.isValid(getValidationTimeout());
+        } catch (SQLException e) {return false;}
+    }
+
+    private Connection lease(@NotNull PooledConnection pooledConnection) {
+        pooledConnection.borrowedAt = System.currentTimeMillis();
+        pooledConnection.borrowTrace = ((getLeakThreshold() > 0) ? new Exception("Connection borrowed here") : null);
+        pooledConnection.leakReported = false;
+        borrowed.add(pooledConnection);
+        return pooledConnection.lease();
+    }
+
+    private void release(@NotNull PooledConnection pooledConnection) {
+        if (!borrowed.remove(pooledConnection)) return;
+
+        if (pooledConnection.leakReported)
+            logger.info("A previously reported leaked connection was returned after "
+                    + (System.currentTimeMillis() - pooledConnection.borrowedAt) + "ms.");
+
+        try {
+            if (isClosed() || pooledConnection.connection.isClosed()) {
+                destroy(pooledConnection);
+                return;
+            }
+
+            if (!pooledConnection.connection.getAutoCommit()) {
+                pooledConnection.connection.rollback();
+                pooledConnection.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            destroy(pooledConnection);
+            return;
+        }
+
+        pooledConnection.statementsInUse.clear();
+        pooledConnection.lastUsed = System.currentTimeMillis();
+        idle.offerFirst(pooledConnection);
+    }
+
+    private void destroy(@NotNull PooledConnection pooledConnection) {
+        totalSize.decrementAndGet();
+        try {
+            pooledConnection.connection.close();
+        } catch (SQLException ignored) {}
+    }
+
+    private void housekeep() {
+        try {
+            final long now = System.currentTimeMillis();
+
+            if (getIdleTimeout() > 0) {
+                final Iterator<PooledConnection> iterator = idle.descendingIterator();
+                while (iterator.hasNext() && totalSize.get() > minimumSize) {
+                    final PooledConnection pooledConnection = iterator.next();
+                    if ((now - pooledConnection.lastUsed) > getIdleTimeout() && idle.remove(pooledConnection))
+                        destroy(pooledConnection);
+                }
+            }
+
+            if (getLeakThreshold() > 0)
+                for (PooledConnection pooledConnection : borrowed) {
+                    if (pooledConnection.leakReported || (now - pooledConnection.borrowedAt) <= getLeakThreshold())
+                        continue;
+
+                    pooledConnection.leakReported = true;
+                    logger.log(Level.WARNING, "A connection has been borrowed for over " + getLeakThreshold()
+                            + "ms and may have leaked.", pooledConnection.borrowTrace);
+                }
+
+            fill();
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.WARNING, "The connection pool housekeeping failed (" + e.getMessage() + ").");
+        }
+    }
+
+    // TAG getters & setters
+
+    public boolean isClosed() {return closed;}
+
+    public int getMinimumSize() {return minimumSize;}
+
+    public int getMaximumSize() {return maximumSize;}
+
+    public int getTotalCount() {return totalSize.get();}
+
+    public int getIdleCount() {return idle.size();}
+
+    public int getActiveCount() {return borrowed.size();}
+
+    public long getConnectionTimeout() {return connectionTimeout;}
+
+    public void setConnectionTimeout(long connectionTimeout) {this.connectionTimeout = connectionTimeout;}
+
+    public long getIdleTimeout() {return idleTimeout;}
+
+    public void setIdleTimeout(long idleTimeout) {this.idleTimeout = idleTimeout;}
+
+    public long getLeakThreshold() {return leakThreshold;}
+
+    public void setLeakThreshold(long leakThreshold) {this.leakThreshold = leakThreshold;}
+
+    public int getValidationTimeout() {return validationTimeout;}
+
+    public void setValidationTimeout(int validationTimeout) {this.validationTimeout = validationTimeout;}
+
+    public int getStatementCacheSize() {return statementCacheSize;}
+
+    /**
+     * @param statementCacheSize The amount of prepared statements kept open per connection (0 disables the cache).
+     */
+    public void setStatementCacheSize(int statementCacheSize) {this.statementCacheSize = statementCacheSize;}
+
+    public boolean isReadOnly() {return readOnly;}
+
+    public void setReadOnly(boolean readOnly) {this.readOnly = readOnly;}
+
+    public ConnectionInitializer getInitializer() {return initializer;}
+
+    public void setInitializer(@Nullable ConnectionInitializer initializer) {this.initializer = initializer;}
+
+    public interface ConnectionInitializer {
+
+        /**
+         * @param connection The freshly opened physical connection.
+         * @throws SQLException When the connection can not be prepared.
+         */
+        void initialize(@NotNull Connection connection) throws SQLException;
+
+    }
+
+    private class PooledConnection {
+
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements;
+        private final Set<PreparedStatement> statementsInUse;
+        private volatile long lastUsed, borrowedAt;
+        private volatile Exception borrowTrace;
+        private volatile boolean leakReported;
+
+        private PooledConnection(@NotNull Connection connection) {
+            this.connection = connection;
+            this.lastUsed = System.currentTimeMillis();
+            this.statementsInUse = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= getStatementCacheSize() || statementsInUse.contains(eldest.getValue())) return false;
+
+                    try {
+                        eldest.getValue().close();
+                    } catch (SQLException ignored) {}
+                    return true;
+                }
+            };
+        }
+
+        /**
+         * Prepares the statement once per physical connection and hands out a view whose close only clears its parameters.
+         *
+         * @param sql The parameterized statement.
+         * @return The cached statement view (Or an uncached statement if the cached one is still open).
+         * @throws SQLException When the statement can not be prepared.
+         */
+        private PreparedStatement prepareCached(@NotNull String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement != null && statementsInUse.contains(statement)) return connection.prepareStatement(sql);
+            if (statement == null || statement.isClosed()) statements.put(sql, (statement = connection.prepareStatement(sql)));
+
+            final PreparedStatement cachedStatement = statement;
+            statementsInUse.add(cachedStatement);
+
+            final InvocationHandler handler = new InvocationHandler() {
+                private boolean closed;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    switch (method.getName()) {
+                        case "close": {
+                            if (!closed) {
+                                closed = true;
+                                statementsInUse.remove(cachedStatement);
+                                cachedStatement.clearParameters();
+                                cachedStatement.clearBatch();
+                            }
+                            return null;
+                        }
+                        case "isClosed":
+                            return (closed || cachedStatement.isClosed());
+                        case "equals":
+                            return (proxy == args[0]);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+
+                    if (closed) throw new SQLException("The statement has already been closed.");
+
+                    try {
+                        return method.invoke(cachedStatement, args);
+                    } catch (InvocationTargetException e) {throw e.getCause();}
+                }
+            };
+
+            return (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class[]{PreparedStatement.class}, handler);
+        }
+
+        /**
+         * @return A proxy of the connection that returns to the pool on close and becomes unusable afterwards.
+         */
+        private Connection lease() {
+            final InvocationHandler handler = new InvocationHandler() {
+                private boolean returned;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    switch (method.getName()) {
+                        case "close": {
+                            if (!returned) {
+                                returned = true;
+                                release(PooledConnection.this);
+                            }
+                            return null;
+                        }
+                        case "isClosed":
+                            return (returned || connection.isClosed());
+                        case "equals":
+                            return (proxy == args[0]);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return ("Pooled" + connection);
+                        default:
+                            break;
+                    }
+
+                    if (returned) throw new SQLException("The connection has already been returned to the pool.");
+                    if (getStatementCacheSize() > 0 && method.getName().equals("prepareStatement")
+                            && args != null && args.length == 1) return prepareCached((String) args[0]);
+
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {throw e.getCause();}
+                }
+            };
+
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class[]{Connection.class}, handler);
+        }
+
+    }
+
+}
@@ -0,0 +1,279 @@
+package dev.zotware.roble.util.storage;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class QueryTemplate {
+
+    private static final Map<String, QueryTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, QueryTemplate[]> CLASS_TEMPLATES = new ConcurrentHashMap<>();
+
+    private final Storage.Type type;
+    private final String table;
+    private final String[] structure, columns;
+    private final String selectSQL;
+    private final Map<String, String> deleteSQL, findSQL;
+    private final Map<Long, ColumnSet> columnSets;
+    private final Map<String, ColumnSet> wideColumnSets;
+
+    private QueryTemplate(@NotNull Storage.Type type, @NotNull String table, @NotNull String[] structure) {
+        this.type = type;
+        this.table = table;
+        this.structure = structure.clone();
+        this.deleteSQL = new ConcurrentHashMap<>();
+        this.findSQL = new ConcurrentHashMap<>();
+        this.columnSets = new ConcurrentHashMap<>();
+        this.wideColumnSets = new ConcurrentHashMap<>();
+
+        columns = new String[structure.length];
+        for (int i = -1; ++i < structure.length; ) columns[i] = StorageData.getColumnName(structure[i]);
+
+        selectSQL = ("SELECT " + String.join(", ", columns) + " FROM " + table);
+    }
+
+    /**
+     * Gets the compiled statements for the data's table and structure (Compiled once and shared afterwards).
+     * The template is remembered per data class, so only a class whose instances use different tables or structures
+     * falls back to the lookup by table and structure.
+     *
+     * @param type The storage type the SQL dialect is chosen from.
+     * @param data The data describing the table.
+     * @return The compiled template.
+     */
+    public static QueryTemplate of(@NotNull Storage.Type type, @NotNull StorageData data) {
+        QueryTemplate[] templates = CLASS_TEMPLATES.get(data.getClass());
+        if (templates == null)
+            templates = CLASS_TEMPLATES.computeIfAbsent(data.getClass(), key -> new QueryTemplate[Storage.Type.values().length]);
+
+        final String table = data.getTable();
+        final String[] structure = data.getStructure();
+        final QueryTemplate template = templates[type.ordinal()];
+        if (template != null && template.matches(table, structure)) return template;
+
+        final QueryTemplate compiled = TEMPLATES.computeIfAbsent(type.name() + ":" + table + Arrays.toString(structure),
+                key -> new QueryTemplate(type, table, structure));
+        templates[type.ordinal()] = compiled;
+        return compiled;
+    }
+
+    /**
+     * Binds a value using the setter matching its type.
+     *
+     * @param statement The statement to bind to.
+     * @param index     The parameter index (Starting at 1).
+     * @param value     The value to bind.
+     * @throws SQLException When the value can not be bound.
+     */
+    public static void bind(@NotNull PreparedStatement statement, int index, @Nullable Object value) throws SQLException {
+        if (value == null) statement.setNull(index, Types.NULL);
+        else if (value instanceof String) statement.setString(index, (String) value);
+        else if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+            statement.setInt(index, ((Number) value).intValue());
+        else if (value instanceof Long) statement.setLong(index, (Long) value);
+        else if (value instanceof Double) statement.setDouble(index, (Double) value);
+        else if (value instanceof Float) statement.setFloat(index, (Float) value);
+        else if (value instanceof Boolean) statement.setBoolean(index, (Boolean) value);
+        else if (value instanceof byte[]) statement.setBytes(index, (byte[]) value);
+        else if (value instanceof UUID) statement.setString(index, value.toString());
+        else if (value instanceof Enum) statement.setString(index, ((Enum<?>) value).name());
+        else statement.setString(index, value.toString());
+    }
+
+    /**
+     * @param valueMap The serialized values.
+     * @return The structure columns present in the values in structure order (Missing columns keep their DEFAULT on insert).
+     */
+    public String[] getUpsertColumns(@NotNull Map<String, Object> valueMap) {return getColumnSet(valueMap.keySet()).columns;}
+
+    /**
+     * @param valueMap The serialized values.
+     * @return The parameterized upsert statement writing exactly the columns present in the values (Compiled once per column set).
+     */
+    public String getUpsertSQL(@NotNull Map<String, Object> valueMap) {return getColumnSet(valueMap.keySet()).upsertSQL;}
+
+    /**
+     * @param upsertColumns The columns being written from {@link #getUpsertColumns(Map)}.
+     * @return The parameterized upsert statement writing exactly the passed columns (Compiled once per column set).
+     */
+    public String getUpsertSQL(@NotNull String[] upsertColumns) {return getColumnSet(Arrays.asList(upsertColumns)).upsertSQL;}
+
+    /**
+     * Binds the serialized values present in the map to the upsert statement in structure order.
+     *
+     * @param statement The statement prepared from {@link #getUpsertSQL(Map)} with the same values.
+     * @param valueMap  The serialized values.
+     * @throws SQLException When a value can not be bound.
+     */
+    public void bindUpsert(@NotNull PreparedStatement statement, @NotNull Map<String, Object> valueMap) throws SQLException {
+        int index = 0;
+        for (String column : columns) if (valueMap.containsKey(column)) bind(statement, ++index, valueMap.get(column));
+    }
+
+    /**
+     * @param changedKeys The changed keys of a partial save.
+     * @return The structure columns among the changed keys in structure order.
+     */
+    public String[] getUpdateColumns(@NotNull Set<String> changedKeys) {return getColumnSet(changedKeys).columns;}
+
+    /**
+     * @param changedKeys The changed keys of a partial save.
+     * @param primaryKey  The column the update matches on.
+     * @return The parameterized update statement setting only the structure columns among the changed keys (Compiled once per column set).
+     */
+    public String getUpdateSQL(@NotNull Set<String> changedKeys, @NotNull String primaryKey) {
+        return getColumnSet(changedKeys).getUpdateSQL(primaryKey);
+    }
+
+    /**
+     * @param updateColumns The columns being set from {@link #getUpdateColumns(Set)}.
+     * @param primaryKey    The column the update matches on.
+     * @return The parameterized update statement setting only the passed columns (Compiled once per column set).
+     */
+    public String getUpdateSQL(@NotNull String[] updateColumns, @NotNull String primaryKey) {
+        return getColumnSet(Arrays.asList(updateColumns)).getUpdateSQL(primaryKey);
+    }
+
+    /**
+     * Binds the changed values followed by the primary key value to the update statement.
+     *
+     * @param statement     The statement prepared from {@link #getUpdateSQL(String[], String)}.
+     * @param updateColumns The columns being set.
+     * @param valueMap      The serialized values.
+     * @param primaryKey    The column the update matches on.
+     * @throws SQLException When a value can not be bound.
+     */
+    public void bindUpdate(@NotNull PreparedStatement statement, @NotNull String[] updateColumns,
+                           @NotNull Map<String, Object> valueMap, @NotNull String primaryKey) throws SQLException {
+        for (int i = -1; ++i < updateColumns.length; ) bind(statement, (i + 1), valueMap.get(updateColumns[i]));
+        bind(statement, (updateColumns.length + 1), valueMap.get(primaryKey));
+    }
+
+    /**
+     * @param primaryKey The column the delete matches on.
+     * @return The parameterized delete statement.
+     */
+    public String getDeleteSQL(@NotNull String primaryKey) {
+        return deleteSQL.computeIfAbsent(primaryKey, key -> ("DELETE FROM " + table + " WHERE " + key + " = ?;"));
+    }
+
+    /**
+     * @param primaryKey The column the lookup matches on.
+     * @return The parameterized single row select statement.
+     */
+    public String getFindSQL(@NotNull String primaryKey) {
+        return findSQL.computeIfAbsent(primaryKey, key -> (selectSQL + " WHERE " + key + " = ?;"));
+    }
+
+    /**
+     * @param primaryKey The column the rows are ordered by.
+     * @param after      Whether only rows after a bound primary key value are selected.
+     * @return The select statement ordered by the primary key (Used to stream a table in a stable, resumable order).
+     */
+    public String getOrderedSelectSQL(@NotNull String primaryKey, boolean after) {
+        return (selectSQL + (after ? (" WHERE " + primaryKey + " > ?") : "") + " ORDER BY " + primaryKey + ";");
+    }
+
+    /**
+     * Maps the current row of the result set to the structure columns.
+     *
+     * @param resultSet The result set positioned on a row selected by {@link #getSelectSQL()}.
+     * @return The row values keyed by column name.
+     * @throws SQLException When a value can not be read.
+     */
+    public Map<String, Object> read(@NotNull ResultSet resultSet) throws SQLException {
+        final Map<String, Object> row = new LinkedHashMap<>(columns.length * 2);
+        for (int i = -1; ++i < columns.length; ) row.put(columns[i], resultSet.getObject(i + 1));
+        return row;
+    }
+
+    private boolean matches(@NotNull String table, @NotNull String[] structure) {
+        return (this.table.equals(table) && Arrays.equals(this.structure, structure));
+    }
+
+    /**
+     * Gets the structure columns among the keys, keyed by a bitmask of the matched columns so no key or SQL is rebuilt
+     * for a column set that was seen before.
+     *
+     * @param keys The column names to match.
+     * @return The shared column set.
+     */
+    private ColumnSet getColumnSet(@NotNull Collection<String> keys) {
+        if (columns.length > Long.SIZE) {
+            final List<String> matched = new ArrayList<>(columns.length);
+            for (String column : columns) if (keys.contains(column)) matched.add(column);
+            return wideColumnSets.computeIfAbsent(String.join(",", matched), key -> new ColumnSet(matched.toArray(new String[0])));
+        }
+
+        long mask = 0;
+        for (int i = -1; ++i < columns.length; ) if (keys.contains(columns[i])) mask |= (1L << i);
+
+        final Long key = mask;
+        final ColumnSet columnSet = columnSets.get(key);
+        if (columnSet != null) return columnSet;
+
+        final List<String> matched = new ArrayList<>(Long.bitCount(mask));
+        for (int i = -1; ++i < columns.length; ) if ((mask & (1L << i)) != 0) matched.add(columns[i]);
+        return columnSets.computeIfAbsent(key, k -> new ColumnSet(matched.toArray(new String[0])));
+    }
+
+    private boolean isSQLite() {return (type != Storage.Type.MySQL && type != Storage.Type.MariaDB);}
+
+    private class ColumnSet {
+
+        private final String[] columns;
+        private final String upsertSQL;
+        private final Map<String, String> updateSQL;
+
+        private ColumnSet(@NotNull String[] columns) {
+            this.columns = columns;
+            this.updateSQL = new ConcurrentHashMap<>();
+
+            final StringBuilder values = new StringBuilder(), assignments = new StringBuilder();
+            for (String column : columns) {
+                if (values.length() > 0) {
+                    values.append(", ");
+                    assignments.append(", ");
+                }
+
+                values.append("?");
+                assignments.append(column).append(" = VALUES(").append(column).append(")");
+            }
+
+            final String keys = String.join(", ", columns);
+            if (isSQLite()) upsertSQL = ("INSERT OR REPLACE INTO " + table + "(" + keys + ") VALUES(" + values + ");");
+            else upsertSQL = ("INSERT INTO " + table + "(" + keys + ") VALUES(" + values + ") ON DUPLICATE KEY UPDATE " + assignments + ";");
+        }
+
+        private String getUpdateSQL(@NotNull String primaryKey) {
+            return updateSQL.computeIfAbsent(primaryKey, key -> {
+                final StringBuilder assignments = new StringBuilder();
+                for (String column : columns) {
+                    if (assignments.length() > 0) assignments.append(", ");
+                    assignments.append(column).append(" = ?");
+                }
+
+                return ("UPDATE " + table + " SET " + assignments + " WHERE " + key + " = ?;");
+            });
+        }
+
+    }
+
+    // TAG getters & setters
+
+    public String getTable() {return table;}
+
+    public String[] getColumns() {return columns;}
+
+    /**
+     * @return The statement selecting every structure column (Without a trailing semicolon so conditions can be appended).
+     */
+    public String getSelectSQL() {return selectSQL;}
+
+}
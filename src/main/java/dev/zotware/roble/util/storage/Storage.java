@@ -1,16 +1,34 @@
 package dev.zotware.roble.util.storage;
 
 import dev.zotware.roble.RoblePlugin;
+import dev.zotware.roble.exceptions.StorageException;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 public abstract class Storage {
 
     private final RoblePlugin INSTANCE;
     private final Type type;
+    private final Map<String, CompletableFuture<Void>> asyncWrites; // operation key -> latest async write
+    private WriteQueue writeQueue;
+    private StorageCache cache;
+    private StorageMetrics metrics;
+    private BukkitTask metricsTask;
 
     public Storage(RoblePlugin instance, @NotNull Type type) {
         this.INSTANCE = instance;
         this.type = type;
+        this.asyncWrites = new ConcurrentHashMap<>();
+        instance.getStorages().add(this);
     }
 
     /**
@@ -19,13 +37,402 @@ public abstract class Storage {
      */
     public abstract void register();
 
+    /**
+     * Registers the storage on the I/O executor.
+     *
+     * @return The future completed once the storage is registered.
+     */
+    public CompletableFuture<Void> registerAsync() {
+        return supplyAsync(() -> {
+            register();
+            return null;
+        });
+    }
+
     /**
      * @return Returns if the storage is able to write or read.
      */
     public abstract boolean isReady();
 
+    /**
+     * Writes the serialized data immediately on the calling thread.
+     *
+     * @param data     The data the values belong to.
+     * @param valueMap The serialized values.
+     */
+    public abstract void write(@NotNull StorageData data, @NotNull Map<String, Object> valueMap);
+
+    /**
+     * Deletes the primary key immediately on the calling thread.
+     *
+     * @param data       The data describing the table.
+     * @param primaryKey The key identifier.
+     * @param value      The value the key would be set to (Only for SQL).
+     */
+    public abstract void remove(@NotNull StorageData data, @NotNull String primaryKey, @Nullable String... value);
+
+    /**
+     * Streams every row of the data's table to the consumer one at a time, without materializing the table.
+     *
+     * @param data     The data describing the table.
+     * @param consumer The consumer receiving each row keyed by the structure columns.
+     * @throws StorageException When the rows can not be read.
+     */
+    public abstract void load(@NotNull StorageData data, @NotNull Consumer<Map<String, Object>> consumer) throws StorageException;
+
+    /**
+     * Reads a single row directly from the storage, bypassing the cache.
+     *
+     * @param data         The data describing the table.
+     * @param primaryValue The primary key value of the row.
+     * @return The row keyed by the structure columns or NULL if it does not exist.
+     * @throws StorageException When the row can not be read.
+     */
+    public abstract @Nullable Map<String, Object> find(@NotNull StorageData data, @NotNull Object primaryValue) throws StorageException;
+
+    /**
+     * Writes several operations at once (Storages override this to batch the work and to write partial saves narrowly,
+     * by default every save writes its complete snapshot).
+     *
+     * @param operations The operations to write in order.
+     */
+    public void apply(@NotNull List<StorageOperation> operations) {
+        for (StorageOperation operation : operations) operation.apply();
+    }
+
+    /**
+     * Writes several operations at once like {@link #apply(List)}, but reports failures to the caller instead of logging them.
+     *
+     * @param operations The operations to write in order.
+     * @throws StorageException When the operations could not be written.
+     */
+    public void commit(@NotNull List<StorageOperation> operations) throws StorageException {apply(operations);}
+
+    /**
+     * Releases any connections or files held by the storage (Called automatically when the plugin disables).
+     */
+    public void close() {}
+
+    /**
+     * Routes saves and deletes through a background queue that only writes the latest snapshot per table and primary key.
+     *
+     * @param flushSize     The amount of pending operations that triggers an early flush.
+     * @param flushInterval The maximum milliseconds an operation waits before being written.
+     */
+    public void enableWriteBehind(int flushSize, long flushInterval) {
+        if (!disableWriteBehind(flushInterval * 10)) {
+            INSTANCE.getLogger().warning("The write-behind queue for " + getType().name() + " was not replaced as the previous one is still draining.");
+            return;
+        }
+
+        writeQueue = new WriteQueue(this, INSTANCE.getLogger(), flushSize, flushInterval);
+    }
+
+    /**
+     * Writes everything still queued and returns to synchronous saving.
+     *
+     * @param timeout The maximum milliseconds to wait for the queue to drain.
+     * @return Whether the queue fully drained before the deadline (If not, it is kept and keeps draining in the background,
+     * accepting new operations so they are still written after the older ones).
+     */
+    public boolean disableWriteBehind(long timeout) {
+        final WriteQueue queue = writeQueue;
+        if (queue == null) return true;
+        if (!queue.drain(timeout)) return false;
+
+        writeQueue = null;
+        return true;
+    }
+
+    /**
+     * Places a read-through cache in front of the storage. Saves update the cache and deletes invalidate it.
+     *
+     * @param maximumSize The maximum amount of cached rows.
+     * @param timeToLive  The milliseconds a row stays cached (0 or less never expires).
+     */
+    public void enableCache(int maximumSize, long timeToLive) {cache = new StorageCache(maximumSize, timeToLive);}
+
+    public void disableCache() {cache = null;}
+
+    /**
+     * Starts recording per-table call counts and latencies, see {@link #getMetricsReport()}.
+     *
+     * @param reportInterval The seconds between reports written to the log or report file (0 or less never reports).
+     * @param reportFile     The file reports are appended to (NULL writes them to the log).
+     */
+    public void enableMetrics(long reportInterval, @Nullable File reportFile) {
+        disableMetrics();
+        metrics = new StorageMetrics();
+        if (reportInterval <= 0) return;
+
+        metricsTask = INSTANCE.getServer().getScheduler().runTaskTimerAsynchronously(INSTANCE, () -> {
+            final String report = getMetricsReport();
+            if (reportFile == null) {
+                INSTANCE.getLogger().info("[" + getType().name() + "] " + report);
+                return;
+            }
+
+            try (Writer writer = new FileWriter(reportFile, true)) {
+                writer.write("[" + new Date() + "] [" + getType().name() + "] " + report + System.lineSeparator());
+            } catch (IOException e) {
+                e.printStackTrace();
+                INSTANCE.getLogger().warning("The storage metrics were unable to be written to \"" + reportFile.getName() + "\".");
+            }
+        }, (reportInterval * 20), (reportInterval * 20));
+    }
+
+    public void disableMetrics() {
+        if (metricsTask != null) {
+            metricsTask.cancel();
+            metricsTask = null;
+        }
+
+        metrics = null;
+    }
+
+    /**
+     * @return The readable metrics summary followed by the current gauges (Empty when metrics are disabled).
+     */
+    public String getMetricsReport() {
+        final StorageMetrics storageMetrics = getMetrics();
+        return ((storageMetrics != null) ? storageMetrics.report(getGauges()) : "");
+    }
+
+    /**
+     * @return The current queue, cache and connection values included in metric reports.
+     */
+    public Map<String, Object> getGauges() {
+        final Map<String, Object> gauges = new LinkedHashMap<>();
+        gauges.put("io-queue.depth", INSTANCE.getIOQueueSize());
+        if (INSTANCE.getTickDispatcher() != null) gauges.put("main-queue.depth", INSTANCE.getTickDispatcher().getQueueSize());
+
+        final WriteQueue queue = getWriteQueue();
+        if (queue != null) {
+            gauges.put("write-queue.depth", queue.size());
+            gauges.put("write-queue.peak", queue.getPeakSize());
+        }
+
+        final StorageCache storageCache = getCache();
+        if (storageCache != null) {
+            gauges.put("cache.size", storageCache.size());
+            gauges.put("cache.hit-rate", String.format("%.1f%%", (storageCache.getHitRate() * 100)));
+        }
+
+        return gauges;
+    }
+
+    /**
+     * @return The value to pass to {@link #recordTiming(String, StorageMetrics.Operation, long, long)} (0 when metrics are disabled).
+     */
+    protected long startTiming() {return ((metrics != null) ? System.nanoTime() : 0);}
+
+    /**
+     * @param table     The table the call worked on ("*" when it is not tied to a table).
+     * @param operation The kind of call.
+     * @param start     The value from {@link #startTiming()}.
+     * @param rows      The amount of rows the call handled.
+     */
+    protected void recordTiming(@NotNull String table, @NotNull StorageMetrics.Operation operation, long start, long rows) {
+        final StorageMetrics storageMetrics = metrics;
+        if (storageMetrics != null && start != 0) storageMetrics.record(table, operation, (System.nanoTime() - start), rows);
+    }
+
+    /**
+     * Records a written batch once for every table and operation kind it contained, each with the batch's duration.
+     *
+     * @param operations The written operations.
+     * @param start      The value from {@link #startTiming()}.
+     */
+    protected void recordBatch(@NotNull List<StorageOperation> operations, long start) {
+        final StorageMetrics storageMetrics = metrics;
+        if (storageMetrics == null || start == 0 || operations.isEmpty()) return;
+
+        final long nanos = (System.nanoTime() - start);
+        final Map<String, long[]> tables = new HashMap<>(); // table -> {saves, deletes}
+        for (StorageOperation operation : operations)
+            tables.computeIfAbsent(operation.getData().getTable(), table -> new long[2])[operation.isDelete() ? 1 : 0]++;
+
+        for (Map.Entry<String, long[]> entry : tables.entrySet()) {
+            if (entry.getValue()[0] > 0) storageMetrics.record(entry.getKey(), StorageMetrics.Operation.SAVE, nanos, entry.getValue()[0]);
+            if (entry.getValue()[1] > 0) storageMetrics.record(entry.getKey(), StorageMetrics.Operation.DELETE, nanos, entry.getValue()[1]);
+        }
+    }
+
+    /**
+     * @param operation The save or delete to run (Queued when write-behind is enabled).
+     */
+    public void submit(@NotNull StorageOperation operation) {
+        updateCache(operation);
+
+        final WriteQueue queue = getWriteQueue();
+        if (queue == null || !queue.enqueue(operation)) commitOrForget(Collections.singletonList(operation));
+    }
+
+    /**
+     * @param operations The saves or deletes to run (Queued when write-behind is enabled, otherwise applied together).
+     */
+    public void submitAll(@NotNull List<StorageOperation> operations) {
+        operations.forEach(this::updateCache);
+
+        final WriteQueue queue = getWriteQueue();
+        if (queue == null) {
+            commitOrForget(operations);
+            return;
+        }
+
+        final List<StorageOperation> rejected = new ArrayList<>();
+        for (StorageOperation operation : operations) if (!queue.enqueue(operation)) rejected.add(operation);
+        if (!rejected.isEmpty()) commitOrForget(rejected);
+    }
+
+    /**
+     * Runs the save or delete on the I/O executor, or queues it right away when write-behind is enabled.
+     * Writes for the same table and primary key run one after another in the order they were submitted.
+     *
+     * @param operation The operation to run.
+     * @return The future completed once the operation is written (Or queued), completed exceptionally when it failed.
+     */
+    public CompletableFuture<Void> submitAsync(@NotNull StorageOperation operation) {
+        if (getWriteQueue() != null) {
+            submit(operation);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        updateCache(operation);
+
+        final String key = operation.getKey();
+        final CompletableFuture<Void> written = new CompletableFuture<>(), previous = asyncWrites.put(key, written);
+        final CompletableFuture<Void> ready = ((previous != null) ? previous.handle((result, throwable) -> null)
+                : CompletableFuture.completedFuture(null));
+        ready.thenCompose(ignored -> supplyAsync(() -> {
+            try {
+                commit(Collections.singletonList(operation));
+            } catch (StorageException | RuntimeException e) {
+                forget(Collections.singletonList(operation));
+                throw e;
+            }
+            return null;
+        })).whenComplete((result, throwable) -> {
+            asyncWrites.remove(key, written);
+            if (throwable == null) written.complete(null);
+            else written.completeExceptionally((throwable instanceof CompletionException && throwable.getCause() != null)
+                    ? throwable.getCause() : throwable);
+        });
+        return written;
+    }
+
+    /**
+     * Runs the task on the plugin's I/O executor (On the calling thread once the executor was shut down while the storage
+     * is still open, e.g. from callbacks run as the plugin disables). Continue on the server thread with
+     * {@code future.thenAcceptAsync(callback, plugin.getMainThreadExecutor())}.
+     *
+     * @param task The task to run.
+     * @param <T>  The result type.
+     * @return The future completed with the task's result, or exceptionally with what it threw (Including errors,
+     * a {@link RejectedExecutionException} when the executor is full or shut down and a {@link CancellationException}
+     * when the task was dropped on shutdown).
+     */
+    public <T> CompletableFuture<T> supplyAsync(@NotNull StorageTask<T> task) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final FutureTask<T> futureTask = new FutureTask<T>(task::run) {
+            @Override
+            protected void done() {
+                try {
+                    future.complete(get());
+                } catch (ExecutionException e) {
+                    future.completeExceptionally(e.getCause());
+                } catch (CancellationException | InterruptedException e) {future.completeExceptionally(e);}
+            }
+        };
+
+        final ExecutorService executor = INSTANCE.getIOExecutor();
+        try {
+            executor.execute(futureTask);
+        } catch (RejectedExecutionException e) {
+            // while the plugin disables, work submitted by the last callbacks still reaches the open storage
+            if (executor.isShutdown() && isReady()) futureTask.run();
+            else future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Starts a unit of work whose saves and deletes are only written when it is committed, all at once.
+     *
+     * @return The new transaction.
+     */
+    public Transaction beginTransaction() {return new Transaction(this);}
+
+    /**
+     * Writes the operations, logging a failure and forgetting what was not written (See {@link #forget(List)}).
+     *
+     * @param operations The operations to write in order.
+     */
+    void commitOrForget(@NotNull List<StorageOperation> operations) {
+        try {
+            commit(operations);
+        } catch (StorageException | RuntimeException e) {
+            e.printStackTrace();
+            INSTANCE.getLogger().warning("Unable to write " + operations.size() + " operations to the " + getType().name()
+                    + " storage, they are written completely on the next save (" + e.getMessage() + ").");
+            forget(operations);
+        }
+    }
+
+    /**
+     * Clears the persisted snapshot of each operation's data so its next save writes it completely again,
+     * and drops the cached rows the operations had already updated.
+     *
+     * @param operations The operations that could not be written.
+     */
+    void forget(@NotNull List<StorageOperation> operations) {
+        final StorageCache storageCache = getCache();
+        for (StorageOperation operation : operations) {
+            operation.getData().clearSnapshot();
+
+            final Object identifier = operation.getIdentifier();
+            if (storageCache != null && identifier != null)
+                storageCache.invalidate(StorageCache.getKey(operation.getData().getTable(), identifier));
+        }
+    }
+
+    void updateCache(@NotNull StorageOperation operation) {
+        final StorageCache storageCache = getCache();
+        if (storageCache == null) return;
+
+        final Object identifier = operation.getIdentifier();
+        if (identifier == null) return;
+
+        if (operation.isDelete()) {
+            String section = String.valueOf(identifier);
+            if (getType() == Type.FLAT && section.indexOf('.') > 0) section = section.substring(0, section.indexOf('.'));
+            storageCache.invalidate(StorageCache.getKey(operation.getData().getTable(), section));
+            return;
+        }
+
+        // partial rows only update a cached row, a complete one may be cached on its own
+        final String key = StorageCache.getKey(operation.getData().getTable(), identifier);
+        final Map<String, Object> row = operation.getRow();
+        if (storageCache.merge(key, row)) return;
+
+        for (String column : operation.getData().getStructure())
+            if (!row.containsKey(StorageData.getColumnName(column))) return;
+        storageCache.put(key, row);
+    }
+
     public Type getType() {return type;}
 
-    public enum Type {FLAT, SQLite, MySQL, MariaDB}
+    public @Nullable StorageCache getCache() {return cache;}
+
+    public @Nullable StorageMetrics getMetrics() {return metrics;}
+
+    public @Nullable WriteQueue getWriteQueue() {return writeQueue;}
+
+    public enum Type {FLAT, BINARY, SQLite, MySQL, MariaDB}
+
+    @FunctionalInterface
+    public interface StorageTask<T> {
+        T run() throws StorageException;
+    }
 
-}
\ No newline at end of file
+}
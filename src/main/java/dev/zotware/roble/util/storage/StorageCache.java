@@ -0,0 +1,175 @@
+package dev.zotware.roble.util.storage;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class StorageCache {
+
+    private static final int VERSION_STRIPES = 64;
+
+    private final int maximumSize;
+    private final long timeToLive;
+    private final LinkedHashMap<String, CachedRow> entries;
+    private final long[] versions; // bumped on every write so a read-through never stores a row older than a write
+    private long hits, misses, evictions;
+
+    /**
+     * Creates a size bounded LRU cache of rows keyed by table and primary key.
+     *
+     * @param maximumSize The maximum amount of rows kept before the least recently used row is evicted.
+     * @param timeToLive  The milliseconds a row stays cached after being written or loaded (0 or less never expires).
+     */
+    public StorageCache(int maximumSize, long timeToLive) {
+        this.maximumSize = Math.max(1, maximumSize);
+        this.timeToLive = timeToLive;
+        this.versions = new long[VERSION_STRIPES];
+        this.entries = new LinkedHashMap<String, CachedRow>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRow> eldest) {
+                if (size() <= StorageCache.this.maximumSize) return false;
+
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param table      The table the row belongs to.
+     * @param primaryKey The primary key value of the row.
+     * @return The cache key.
+     */
+    public static String getKey(@NotNull String table, @NotNull Object primaryKey) {return (table + ":" + primaryKey);}
+
+    /**
+     * @param key The key from {@link #getKey(String, Object)}.
+     * @return The cached row or NULL if it is not cached or has expired.
+     */
+    public synchronized @Nullable Map<String, Object> get(@NotNull String key) {
+        final CachedRow entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        if (entry.expiresAt > 0 && entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(key);
+            evictions++;
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.row;
+    }
+
+    /**
+     * @param key The key from {@link #getKey(String, Object)}.
+     * @param row The row values (Copied into an unmodifiable map).
+     */
+    public void put(@NotNull String key, @NotNull Map<String, Object> row) {
+        final CachedRow entry = createEntry(row);
+        synchronized (this) {
+            versions[getStripe(key)]++;
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Stores a row read from the storage, unless the key was written since the version was taken or is cached already.
+     *
+     * @param key     The key from {@link #getKey(String, Object)}.
+     * @param row     The row values (Copied into an unmodifiable map).
+     * @param version The value of {@link #getVersion(String)} taken before the row was read.
+     * @return Whether the row was stored.
+     */
+    public boolean putIfUnchanged(@NotNull String key, @NotNull Map<String, Object> row, long version) {
+        final CachedRow entry = createEntry(row);
+        synchronized (this) {
+            if (versions[getStripe(key)] != version || entries.containsKey(key)) return false;
+
+            entries.put(key, entry);
+            return true;
+        }
+    }
+
+    /**
+     * Updates the passed columns of a cached row, leaving its other columns as they are.
+     *
+     * @param key    The key from {@link #getKey(String, Object)}.
+     * @param values The changed column values.
+     * @return Whether the row was cached and updated.
+     */
+    public synchronized boolean merge(@NotNull String key, @NotNull Map<String, Object> values) {
+        versions[getStripe(key)]++;
+        final CachedRow entry = entries.get(key);
+        if (entry == null) return false;
+
+        final Map<String, Object> row = new HashMap<>(entry.row);
+        row.putAll(values);
+        entries.put(key, new CachedRow(Collections.unmodifiableMap(row), entry.expiresAt));
+        return true;
+    }
+
+    /**
+     * @param key The key from {@link #getKey(String, Object)}.
+     * @return The write version of the key, passed to {@link #putIfUnchanged(String, Map, long)}.
+     */
+    public synchronized long getVersion(@NotNull String key) {return versions[getStripe(key)];}
+
+    /**
+     * @param key The key from {@link #getKey(String, Object)}.
+     */
+    public synchronized void invalidate(@NotNull String key) {
+        versions[getStripe(key)]++;
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every cached row.
+     */
+    public synchronized void clear() {
+        for (int i = -1; ++i < versions.length; ) versions[i]++;
+        entries.clear();
+    }
+
+    private CachedRow createEntry(@NotNull Map<String, Object> row) {
+        return new CachedRow(Collections.unmodifiableMap(new HashMap<>(row)), ((timeToLive > 0) ? (System.currentTimeMillis() + timeToLive) : 0));
+    }
+
+    private int getStripe(@NotNull String key) {return Math.floorMod(key.hashCode(), VERSION_STRIPES);}
+
+    // TAG getters & setters
+
+    public synchronized int size() {return entries.size();}
+
+    public int getMaximumSize() {return maximumSize;}
+
+    public long getTimeToLive() {return timeToLive;}
+
+    public synchronized long getHits() {return hits;}
+
+    public synchronized long getMisses() {return misses;}
+
+    public synchronized long getEvictions() {return evictions;}
+
+    public synchronized double getHitRate() {return (((hits + misses) > 0) ? ((double) hits / (hits + misses)) : 0);}
+
+    private static class CachedRow {
+
+        private final Map<String, Object> row;
+        private final long expiresAt;
+
+        private CachedRow(@NotNull Map<String, Object> row, long expiresAt) {
+            this.row = row;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
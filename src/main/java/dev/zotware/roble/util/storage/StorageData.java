@@ -1,18 +1,18 @@
 package dev.zotware.roble.util.storage;
 
 import dev.zotware.roble.exceptions.StorageException;
-import dev.zotware.roble.util.storage.types.FlatFile;
-import dev.zotware.roble.util.storage.types.SQLStorage;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-import java.util.Map;
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public abstract class StorageData {
 
     private final Storage storage;
+    private Map<String, Object> persistedSnapshot;
 
     public StorageData(@NotNull Storage storage) throws StorageException {
         this.storage = storage;
@@ -23,110 +23,261 @@ public abstract class StorageData {
 
     }
 
+    /**
+     * @param column The column definition from the structure (e.g. "uuid VARCHAR(36)" or "uuid:TEXT").
+     * @return The column name without its type.
+     */
+    public static String getColumnName(@NotNull String column) {
+        if (column.contains(" ")) return column.split(" ")[0];
+        else if (column.contains(":")) return column.split(":")[0];
+        return column;
+    }
+
+    /**
+     * Serializes the data into its column or path values. Values are compared against a deep copy of the last
+     * persisted snapshot to find what changed.
+     *
+     * @return The serialized values.
+     */
     public abstract Map<String, Object> serialize();
 
     /**
-     * Saves the data based on existing data provided.
+     * Saves the values that changed since the last save or {@link #markPersisted()}, skipping the write entirely
+     * when nothing changed (Queued if the storage has write-behind enabled).
      */
     public void save() {
-        if (getStorage() instanceof SQLStorage) {
-            final Map<String, Object> valueMap = serialize();
-            final SQLStorage sqlStorage = (SQLStorage) getStorage();
-            switch (sqlStorage.getType()) {
-                case MariaDB:
-                case MySQL: {
-                    final StringBuilder keys = new StringBuilder(), values = new StringBuilder(), valuesDupe = new StringBuilder();
-                    for (String key : getStructure()) {
-                        final Object value = valueMap.getOrDefault(key, null);
-                        if (value == null) continue;
-
-                        // handle key string
-                        if (keys.length() > 0) keys.append(", ");
-                        if (key.contains(" ")) keys.append(key.split(" ")[0]);
-                        else if (key.contains(":")) keys.append(key.split(":")[0]);
-                        else keys.append(key);
-
-                        // handle value string
-                        if (values.length() > 0) values.append(", ");
-                        values.append("'").append(value).append("'");
-
-                        if (valuesDupe.length() > 0) valuesDupe.append(", ");
-                        if (key.contains(" ")) keys.append(key.split(" ")[0]).append(" = '").append(value).append("'");
-                        else keys.append(key).append(" = '").append(value).append("'");
-                    }
-
-                    try (PreparedStatement statement = sqlStorage.CONNECTION.prepareStatement("INSERT INTO " + getTable()
-                            + "(" + keys + ") VALUES(" + values + ") ON DUPLICATE KEY UPDATE " + valuesDupe + ";")) {
-                        statement.executeUpdate();
-                    } catch (SQLException e) {e.printStackTrace();}
-
-                }
-
-                default: { // defaults to SQLite
-                    final StringBuilder keys = new StringBuilder(), values = new StringBuilder();
-                    for (String key : getStructure()) {
-
-                        final String fixedKey;
-                        if (key.contains(" ")) fixedKey = key.split(" ")[0];
-                        else if (key.contains(":")) fixedKey = key.split(":")[0];
-                        else fixedKey = key;
-
-                        final Object value = valueMap.getOrDefault(fixedKey, "");
-                        if (value == null) continue;
-
-                        // handle key string
-                        if (keys.length() > 0) keys.append(", ");
-                        keys.append(fixedKey);
-
-                        // handle value string
-                        if (values.length() > 0) values.append(", ");
-                        values.append("'").append(value).append("'");
-                    }
-
-                    try (PreparedStatement statement = sqlStorage.CONNECTION.prepareStatement("INSERT OR REPLACE INTO "
-                            + getTable() + "(" + keys + ") VALUES(" + values + ");")) {
-                        statement.executeUpdate();
-                    } catch (SQLException e) {e.printStackTrace();}
-                }
-            }
-            return;
-        }
-
-        final FlatFile flatFile = (FlatFile) getStorage();
-        for (Map.Entry<String, Object> entry : serialize().entrySet())
-            flatFile.getConfiguration().set(entry.getKey(), entry.getValue());
-        flatFile.getConfiguration().save();
+        final StorageOperation operation = createSaveOperation();
+        if (operation != null) getStorage().submit(operation);
     }
 
     /**
-     * Deletes the primary key from the storage.
+     * Deletes the primary key from the storage (Queued if the storage has write-behind enabled).
+     * The next save writes the complete data again.
      *
      * @param primaryKey The key identifier.
      * @param value      The value the key would be set to (Only for SQL).
      */
     public void delete(@NotNull String primaryKey, @Nullable String... value) {
-        if (getStorage() instanceof SQLStorage && value.length > 0) {
-            final SQLStorage sqlStorage = (SQLStorage) getStorage();
+        clearSnapshot();
+        getStorage().submit(StorageOperation.delete(this, primaryKey, value));
+    }
 
-            try (PreparedStatement statement = sqlStorage.CONNECTION.prepareStatement("DELETE FROM "
-                    + getTable() + " WHERE " + primaryKey + "= '" + value[0] + "';")) {
-                statement.executeUpdate();
-            } catch (SQLException e) {e.printStackTrace();}
+    /**
+     * Serializes the data on the calling thread and writes the changes on the I/O executor (Queued if the storage has
+     * write-behind enabled).
+     *
+     * @return The future completed once the changes are written, completed exceptionally when they could not be.
+     */
+    public CompletableFuture<Void> saveAsync() {
+        final StorageOperation operation = createSaveOperation();
+        if (operation == null) return CompletableFuture.completedFuture(null);
 
+        return getStorage().submitAsync(operation);
+    }
+
+    /**
+     * Deletes the primary key on the I/O executor (Queued if the storage has write-behind enabled).
+     *
+     * @param primaryKey The key identifier.
+     * @param value      The value the key would be set to (Only for SQL).
+     * @return The future completed once the row is deleted.
+     */
+    public CompletableFuture<Void> deleteAsync(@NotNull String primaryKey, @Nullable String... value) {
+        clearSnapshot();
+        return getStorage().submitAsync(StorageOperation.delete(this, primaryKey, value));
+    }
+
+    /**
+     * Records the current values as persisted (e.g. after populating the data from a loaded row) so the next save
+     * only writes what changes afterwards.
+     */
+    public synchronized void markPersisted() {persistedSnapshot = copySnapshot(serialize());}
+
+    /**
+     * Forgets the persisted snapshot so the next save writes the complete data.
+     */
+    public synchronized void clearSnapshot() {persistedSnapshot = null;}
+
+    /**
+     * Diffs the serialized values against the persisted snapshot and records them as the new snapshot.
+     * Should the write fail, the snapshot is cleared again so the next save writes the complete data.
+     *
+     * @return The save operation (Partial when only some values changed) or NULL if nothing changed.
+     */
+    protected synchronized @Nullable StorageOperation createSaveOperation() {
+        final Map<String, Object> valueMap = serialize(), previous = persistedSnapshot;
+        persistedSnapshot = copySnapshot(valueMap);
+        if (previous == null) return StorageOperation.save(this, valueMap);
+
+        final Set<String> changedKeys = new HashSet<>();
+        for (Map.Entry<String, Object> entry : valueMap.entrySet())
+            if (!previous.containsKey(entry.getKey()) || !Objects.deepEquals(previous.get(entry.getKey()), entry.getValue()))
+                changedKeys.add(entry.getKey());
+
+        if (changedKeys.isEmpty()) return null;
+
+        // a changed or missing primary key addresses a different row, so the complete data is written
+        final String primaryKey = getPrimaryKey();
+        if (changedKeys.contains(primaryKey) || (getStorage().getType() != Storage.Type.FLAT && valueMap.get(primaryKey) == null))
+            return StorageOperation.save(this, valueMap);
+
+        return StorageOperation.update(this, valueMap, changedKeys);
+    }
+
+    private static Map<String, Object> copySnapshot(@NotNull Map<String, Object> valueMap) {
+        final Map<String, Object> snapshot = new HashMap<>(valueMap.size() * 2);
+        for (Map.Entry<String, Object> entry : valueMap.entrySet()) snapshot.put(entry.getKey(), copyValue(entry.getValue()));
+        return snapshot;
+    }
+
+    /**
+     * @param value The serialized value.
+     * @return A copy of collections, maps and arrays (Recursively) so changing the original in place is still detected.
+     */
+    private static Object copyValue(@Nullable Object value) {
+        if (value instanceof List) {
+            final List<Object> copy = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) copy.add(copyValue(element));
+            return copy;
+        } else if (value instanceof Set) {
+            final Set<Object> copy = new LinkedHashSet<>();
+            for (Object element : (Set<?>) value) copy.add(copyValue(element));
+            return copy;
+        } else if (value instanceof Map) {
+            final Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) copy.put(entry.getKey(), copyValue(entry.getValue()));
+            return copy;
+        } else if (value != null && value.getClass().isArray()) {
+            final int length = Array.getLength(value);
+            final Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+            for (int i = -1; ++i < length; ) Array.set(copy, i, copyValue(Array.get(value, i)));
+            return copy;
+        }
+
+        return value;
+    }
+
+    /**
+     * Streams every row of this data's table from the storage.
+     *
+     * @param consumer The consumer receiving each row keyed by the structure columns.
+     * @throws StorageException When the rows can not be read.
+     */
+    public void load(@NotNull Consumer<Map<String, Object>> consumer) throws StorageException {
+        final long start = getStorage().startTiming();
+        if (start == 0) {
+            getStorage().load(this, consumer);
             return;
         }
 
-        final FlatFile flatFile = (FlatFile) getStorage();
-        flatFile.getConfiguration().set(primaryKey, null);
-        flatFile.getConfiguration().save();
+        final long[] rows = new long[1];
+        getStorage().load(this, row -> {
+            rows[0]++;
+            consumer.accept(row);
+        });
+        getStorage().recordTiming(getTable(), StorageMetrics.Operation.LOAD, start, rows[0]);
+    }
+
+    /**
+     * Streams every row of this data's table on the I/O executor (The consumer is called from the I/O thread).
+     *
+     * @param consumer The consumer receiving each row keyed by the structure columns.
+     * @return The future completed once every row was passed to the consumer.
+     */
+    public CompletableFuture<Void> loadAsync(@NotNull Consumer<Map<String, Object>> consumer) {
+        return getStorage().supplyAsync(() -> {
+            load(consumer);
+            return null;
+        });
+    }
+
+    /**
+     * Reads a single row like {@link #find(Object)} on the I/O executor.
+     *
+     * @param primaryValue The primary key value of the row.
+     * @return The future completed with the row or NULL if it does not exist.
+     */
+    public CompletableFuture<Map<String, Object>> findAsync(@NotNull Object primaryValue) {
+        return getStorage().supplyAsync(() -> find(primaryValue));
+    }
+
+    /**
+     * Reads a single row of this data's table, served from the storage cache when enabled. Writes still waiting in the
+     * write-behind queue are applied over the stored row.
+     *
+     * @param primaryValue The primary key value of the row.
+     * @return The row keyed by the structure columns or NULL if it does not exist.
+     * @throws StorageException When the row can not be read.
+     */
+    public @Nullable Map<String, Object> find(@NotNull Object primaryValue) throws StorageException {
+        final StorageCache cache = getStorage().getCache();
+        final String key = StorageCache.getKey(getTable(), primaryValue);
+        long version = 0;
+        if (cache != null) {
+            final Map<String, Object> cachedRow = cache.get(key);
+            if (cachedRow != null) return cachedRow;
+            version = cache.getVersion(key);
+        }
+
+        final WriteQueue queue = getStorage().getWriteQueue();
+        final StorageOperation pending = ((queue != null) ? queue.peek(key) : null);
+        if (pending != null && pending.isDelete()) return null;
+
+        final long start = getStorage().startTiming();
+        Map<String, Object> row = getStorage().find(this, primaryValue);
+        getStorage().recordTiming(getTable(), StorageMetrics.Operation.FIND, start, ((row != null) ? 1 : 0));
+
+        if (pending != null) {
+            if (row == null) {
+                row = new LinkedHashMap<>();
+                for (String column : getStructure()) row.put(getColumnName(column), null);
+            } else row = new LinkedHashMap<>(row);
+            row.putAll(pending.getRow());
+        }
+
+        if (cache != null && row != null) cache.putIfUnchanged(key, row, version);
+        return row;
+    }
+
+    /**
+     * Saves the changes of every passed data object, batching the writes per storage (Queued if the storage has write-behind enabled).
+     *
+     * @param dataCollection The data to save.
+     */
+    public static void saveAll(@NotNull Collection<? extends StorageData> dataCollection) {
+        final Map<Storage, List<StorageOperation>> operations = new LinkedHashMap<>();
+        for (StorageData data : dataCollection) {
+            final StorageOperation operation = data.createSaveOperation();
+            if (operation != null) operations.computeIfAbsent(data.getStorage(), storage -> new ArrayList<>()).add(operation);
+        }
+        operations.forEach(Storage::submitAll);
+    }
+
+    /**
+     * Deletes every passed primary key value from this data's table in one batch (Queued if the storage has write-behind enabled).
+     *
+     * @param values The primary key values to delete (Used as the key paths for flat files).
+     */
+    public void deleteAll(@NotNull Collection<String> values) {
+        final List<StorageOperation> operations = new ArrayList<>(values.size());
+        for (String value : values) {
+            if (getStorage().getType() == Storage.Type.FLAT) operations.add(StorageOperation.delete(this, value));
+            else operations.add(StorageOperation.delete(this, getPrimaryKey(), value));
+        }
+        getStorage().submitAll(operations);
     }
 
     public abstract String[] getStructure();
 
     public abstract String getTable();
 
+    /**
+     * @return The column uniquely identifying a row (Defaults to the first column of the structure).
+     */
+    public String getPrimaryKey() {return getColumnName(getStructure()[0]);}
+
     // getters & setters
 
     public Storage getStorage() {return storage;}
 
-}
\ No newline at end of file
+}
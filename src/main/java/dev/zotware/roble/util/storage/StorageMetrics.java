@@ -0,0 +1,184 @@
+package dev.zotware.roble.util.storage;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StorageMetrics {
+
+    private final Map<String, Timer[]> timers;
+    private volatile long since;
+
+    /**
+     * Creates an empty set of per-table, per-operation timers.
+     */
+    public StorageMetrics() {
+        this.timers = new ConcurrentHashMap<>();
+        this.since = System.currentTimeMillis();
+    }
+
+    /**
+     * Records one call.
+     *
+     * @param table     The table the call worked on ("*" when it is not tied to a table).
+     * @param operation The kind of call.
+     * @param nanos     The nanoseconds the call took.
+     * @param rows      The amount of rows the call handled.
+     */
+    public void record(@NotNull String table, @NotNull Operation operation, long nanos, long rows) {
+        Timer[] tableTimers = timers.get(table);
+        if (tableTimers == null) tableTimers = timers.computeIfAbsent(table, key -> {
+            final Timer[] created = new Timer[Operation.values().length];
+            for (int i = -1; ++i < created.length; ) created[i] = new Timer();
+            return created;
+        });
+
+        tableTimers[operation.ordinal()].record(nanos, rows);
+    }
+
+    /**
+     * @param table     The table.
+     * @param operation The kind of call.
+     * @return The timer or NULL if nothing was recorded for the table yet.
+     */
+    public @Nullable Timer getTimer(@NotNull String table, @NotNull Operation operation) {
+        final Timer[] tableTimers = timers.get(table);
+        return ((tableTimers != null) ? tableTimers[operation.ordinal()] : null);
+    }
+
+    /**
+     * Builds a readable summary of every timer that recorded a call, followed by the passed gauges.
+     *
+     * @param gauges The current values to append (e.g. queue depth and pool usage).
+     * @return The report lines.
+     */
+    public String report(@NotNull Map<String, Object> gauges) {
+        final StringBuilder report = new StringBuilder("Storage metrics since ")
+                .append((System.currentTimeMillis() - since) / 1000).append("s ago:");
+
+        for (Map.Entry<String, Timer[]> entry : new TreeMap<>(timers).entrySet()) {
+            for (Operation operation : Operation.values()) {
+                final Timer timer = entry.getValue()[operation.ordinal()];
+                if (timer.getCount() <= 0) continue;
+
+                report.append("\n  ").append(entry.getKey()).append(' ').append(operation.name())
+                        .append(": calls=").append(timer.getCount()).append(" rows=").append(timer.getRows())
+                        .append(" p50=").append(format(timer.getPercentile(0.5)))
+                        .append(" p99=").append(format(timer.getPercentile(0.99)))
+                        .append(" max=").append(format(timer.getMax()));
+            }
+        }
+
+        for (Map.Entry<String, Object> gauge : gauges.entrySet())
+            report.append("\n  ").append(gauge.getKey()).append(": ").append(gauge.getValue());
+        return report.toString();
+    }
+
+    /**
+     * Clears every timer.
+     */
+    public void reset() {
+        timers.clear();
+        since = System.currentTimeMillis();
+    }
+
+    private static String format(long nanos) {return (String.format("%.2f", (nanos / 1_000_000D)) + "ms");}
+
+    // TAG getters & setters
+
+    /**
+     * @return The timers per table, indexed by {@link Operation#ordinal()}.
+     */
+    public Map<String, Timer[]> getTimers() {return Collections.unmodifiableMap(timers);}
+
+    public long getSince() {return since;}
+
+    public enum Operation {SAVE, DELETE, LOAD, FIND, CREATE_TABLE, REGISTER}
+
+    /**
+     * Counts calls and keeps their latencies in a log-scale histogram (Four buckets per power of two microseconds,
+     * so a percentile is accurate to within 25%) without locking.
+     */
+    public static class Timer {
+
+        private static final int BUCKETS = (4 + (61 * 4));
+
+        private final LongAdder count, rows, totalNanos;
+        private final AtomicLongArray buckets;
+        private final AtomicLong max;
+
+        private Timer() {
+            this.count = new LongAdder();
+            this.rows = new LongAdder();
+            this.totalNanos = new LongAdder();
+            this.buckets = new AtomicLongArray(BUCKETS);
+            this.max = new AtomicLong();
+        }
+
+        private void record(long nanos, long rowCount) {
+            count.increment();
+            rows.add(rowCount);
+            totalNanos.add(nanos);
+            buckets.incrementAndGet(getBucket(nanos / 1000));
+            max.accumulateAndGet(nanos, Math::max);
+        }
+
+        private static int getBucket(long micros) {
+            if (micros < 4) return (int) Math.max(0, micros);
+
+            final int exponent = (63 - Long.numberOfLeadingZeros(micros));
+            return Math.min((BUCKETS - 1), (4 + ((exponent - 2) * 4) + (int) ((micros >>> (exponent - 2)) & 3)));
+        }
+
+        private static long getBucketLimit(int bucket) {
+            if (bucket < 4) return bucket;
+
+            final int exponent = (((bucket - 4) / 4) + 2), step = ((bucket - 4) % 4);
+            return ((1L << exponent) + ((long) (step + 1) << (exponent - 2)) - 1);
+        }
+
+        /**
+         * @param percentile The percentile between 0 and 1 (e.g. 0.99).
+         * @return The upper bound of the bucket holding the percentile in nanoseconds.
+         */
+        public long getPercentile(double percentile) {
+            final long total = getCount();
+            if (total <= 0) return 0;
+
+            final long target = Math.max(1, (long) Math.ceil(total * percentile));
+            long seen = 0;
+            for (int i = -1; ++i < BUCKETS; ) {
+                seen += buckets.get(i);
+                if (seen >= target) return Math.min(getMax(), ((getBucketLimit(i) + 1) * 1000));
+            }
+
+            return getMax();
+        }
+
+        public long getCount() {return count.sum();}
+
+        public long getRows() {return rows.sum();}
+
+        /**
+         * @return The slowest call in nanoseconds.
+         */
+        public long getMax() {return max.get();}
+
+        /**
+         * @return The average call in nanoseconds.
+         */
+        public long getMean() {
+            final long total = getCount();
+            return ((total > 0) ? (totalNanos.sum() / total) : 0);
+        }
+
+    }
+
+}
@@ -0,0 +1,246 @@
+package dev.zotware.roble.util.storage;
+
+import dev.zotware.roble.RoblePlugin;
+import dev.zotware.roble.exceptions.StorageException;
+import dev.zotware.roble.util.storage.types.SQLStorage;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+public class StorageMigrator {
+
+    private final RoblePlugin INSTANCE;
+    private final Storage source, target;
+    private final StorageData[] tables;
+    private final Properties checkpoint;
+    private File checkpointFile;
+    private int chunkSize;
+    private long progressInterval, migratedCount;
+
+    /**
+     * Creates a migrator copying the tables from one storage to another in bounded chunks.
+     * Rows are written as complete upserts, so rows written again after an interruption are simply overwritten.
+     *
+     * @param instance The plugin instance.
+     * @param source   The storage read from.
+     * @param target   The storage written to (Both storages must be registered).
+     * @param tables   The data describing each table to copy.
+     */
+    public StorageMigrator(@NotNull RoblePlugin instance, @NotNull Storage source, @NotNull Storage target, @NotNull StorageData... tables) {
+        this.INSTANCE = instance;
+        this.source = source;
+        this.target = target;
+        this.tables = tables;
+        this.checkpoint = new Properties();
+        setChunkSize(1000);
+        setProgressInterval(5_000L);
+        setCheckpointFile(new File(instance.getDataFolder(), ("migration-" + source.getType().name().toLowerCase()
+                + "-" + target.getType().name().toLowerCase() + ".properties")));
+    }
+
+    /**
+     * Copies every table, resuming from the checkpoint file when a previous run was interrupted.
+     * The checkpoint is deleted once every table has been copied. This blocks, so run it off the main thread.
+     *
+     * @return The amount of rows written during this run.
+     * @throws StorageException When a row could not be read or a chunk could not be written (The checkpoint keeps the progress).
+     */
+    public long migrate() throws StorageException {
+        if (!source.isReady() || !target.isReady()) throw new StorageException("Both storages must be registered before migrating.");
+
+        loadCheckpoint();
+        migratedCount = 0;
+        final long start = System.currentTimeMillis();
+
+        for (StorageData data : tables) {
+            if (Boolean.parseBoolean(checkpoint.getProperty(data.getTable() + ".done"))) continue;
+            migrate(data);
+        }
+
+        if (target.getCache() != null) target.getCache().clear();
+        if (checkpointFile.exists() && !checkpointFile.delete())
+            INSTANCE.getLogger().warning("The migration checkpoint \"" + checkpointFile.getName() + "\" was unable to be deleted.");
+
+        final long seconds = Math.max(1, (System.currentTimeMillis() - start) / 1000);
+        INSTANCE.getLogger().info("Migrated " + migratedCount + " rows from " + source.getType().name() + " to "
+                + target.getType().name() + " in " + seconds + "s (" + (migratedCount / seconds) + " rows/s).");
+        return migratedCount;
+    }
+
+    private void migrate(@NotNull StorageData data) throws StorageException {
+        final String table = data.getTable();
+        if (target instanceof SQLStorage) {
+            final String[] structure = data.getStructure(), columns = new String[structure.length];
+            for (int i = -1; ++i < structure.length; )
+                columns[i] = (structure[i].contains(" ") ? structure[i] : structure[i].replace(':', ' '));
+            ((SQLStorage) target).createTable(table, columns);
+        }
+
+        final long resumeCount = Long.parseLong(checkpoint.getProperty(table + ".count", "0"));
+        final String lastKey = checkpoint.getProperty(table + ".last");
+        final boolean keyset = (source instanceof SQLStorage);
+        if (resumeCount > 0) INSTANCE.getLogger().info("Resuming the migration of \"" + table + "\" after " + resumeCount + " rows.");
+
+        final Chunk chunk = new Chunk(data, resumeCount, (keyset ? 0 : resumeCount));
+        try {
+            if (keyset) ((SQLStorage) source).load(data, lastKey, chunk::accept);
+            else source.load(data, chunk::accept);
+            chunk.flush();
+        } catch (ChunkFailure failure) {
+            throw failure.exception;
+        }
+
+        checkpoint.setProperty(table + ".done", "true");
+        saveCheckpoint();
+    }
+
+    /**
+     * Converts a loaded row into the value map the target writes (Flat files store each column under the primary key section).
+     *
+     * @param data The data describing the table.
+     * @param row  The row keyed by the structure columns.
+     * @return The value map to save.
+     */
+    protected Map<String, Object> toValueMap(@NotNull StorageData data, @NotNull Map<String, Object> row) {
+        if (target.getType() != Storage.Type.FLAT) return row;
+
+        final String primaryKey = data.getPrimaryKey(), section = String.valueOf(row.get(primaryKey));
+        final Map<String, Object> valueMap = new LinkedHashMap<>(row.size() * 2);
+        for (Map.Entry<String, Object> entry : row.entrySet())
+            if (!entry.getKey().equals(primaryKey)) valueMap.put((section + "." + entry.getKey()), entry.getValue());
+        return valueMap;
+    }
+
+    private void loadCheckpoint() {
+        checkpoint.clear();
+        if (!checkpointFile.exists()) return;
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(checkpointFile), "UTF-8")) {
+            checkpoint.load(reader);
+        } catch (IOException e) {
+            e.printStackTrace();
+            INSTANCE.getLogger().warning("The migration checkpoint was unable to be read, starting from the beginning.");
+            checkpoint.clear();
+        }
+    }
+
+    private void saveCheckpoint() throws StorageException {
+        final File parent = checkpointFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs())
+            throw new StorageException("The directory \"" + parent.getPath() + "\" was unable to be created.");
+
+        final File temporaryFile = new File(checkpointFile.getPath() + ".tmp");
+        try {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), "UTF-8")) {
+                checkpoint.store(writer, "Roble storage migration checkpoint");
+            }
+
+            try {
+                Files.move(temporaryFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new StorageException("The migration checkpoint was unable to be saved (" + e.getMessage() + ").", e);
+        }
+    }
+
+    // TAG getters & setters
+
+    public Storage getSource() {return source;}
+
+    public Storage getTarget() {return target;}
+
+    public int getChunkSize() {return chunkSize;}
+
+    /**
+     * @param chunkSize The amount of rows held in memory and written per batch.
+     */
+    public void setChunkSize(int chunkSize) {this.chunkSize = Math.max(1, chunkSize);}
+
+    public long getProgressInterval() {return progressInterval;}
+
+    /**
+     * @param progressInterval The minimum milliseconds between progress messages.
+     */
+    public void setProgressInterval(long progressInterval) {this.progressInterval = progressInterval;}
+
+    public File getCheckpointFile() {return checkpointFile;}
+
+    public void setCheckpointFile(@NotNull File checkpointFile) {this.checkpointFile = checkpointFile;}
+
+    /**
+     * @return The amount of rows written by the current or last run.
+     */
+    public long getMigratedCount() {return migratedCount;}
+
+    private class Chunk {
+
+        private final StorageData data;
+        private final List<StorageOperation> operations;
+        private final long tableStart, resumeCount;
+        private long tableCount, skip, lastReport;
+        private Object lastKey;
+
+        private Chunk(@NotNull StorageData data, long tableCount, long skip) {
+            this.data = data;
+            this.operations = new ArrayList<>(chunkSize);
+            this.tableCount = this.resumeCount = tableCount;
+            this.skip = skip;
+            this.tableStart = this.lastReport = System.currentTimeMillis();
+        }
+
+        private void accept(@NotNull Map<String, Object> row) {
+            if (skip > 0) { // sources without an ordered key are resumed by skipping the rows already written
+                skip--;
+                return;
+            }
+
+            lastKey = row.get(data.getPrimaryKey());
+            operations.add(StorageOperation.save(data, toValueMap(data, row), target));
+            if (operations.size() < chunkSize) return;
+
+            try {
+                flush();
+            } catch (StorageException e) {throw new ChunkFailure(e);}
+        }
+
+        private void flush() throws StorageException {
+            if (operations.isEmpty()) return;
+
+            target.commit(operations);
+            tableCount += operations.size();
+            migratedCount += operations.size();
+            operations.clear();
+
+            checkpoint.setProperty(data.getTable() + ".count", String.valueOf(tableCount));
+            if (lastKey != null) checkpoint.setProperty(data.getTable() + ".last", String.valueOf(lastKey));
+            saveCheckpoint();
+
+            final long now = System.currentTimeMillis();
+            if ((now - lastReport) < progressInterval) return;
+
+            lastReport = now;
+            final long seconds = Math.max(1, (now - tableStart) / 1000);
+            INSTANCE.getLogger().info("Migrating \"" + data.getTable() + "\": " + tableCount + " rows written ("
+                    + ((tableCount - resumeCount) / seconds) + " rows/s).");
+        }
+
+    }
+
+    private static class ChunkFailure extends RuntimeException {
+
+        private final StorageException exception;
+
+        private ChunkFailure(@NotNull StorageException exception) {
+            super(exception);
+            this.exception = exception;
+        }
+
+    }
+
+}
@@ -0,0 +1,184 @@
+package dev.zotware.roble.util.storage;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+public class StorageOperation {
+
+    private final StorageData data;
+    private final Storage storage;
+    private final Map<String, Object> valueMap;
+    private final String primaryKey;
+    private final String[] value;
+    private final Set<String> changedKeys;
+
+    private StorageOperation(@NotNull StorageData data, @Nullable Map<String, Object> valueMap,
+                             @Nullable String primaryKey, @Nullable String[] value, @Nullable Set<String> changedKeys) {
+        this(data, data.getStorage(), valueMap, primaryKey, value, changedKeys);
+    }
+
+    private StorageOperation(@NotNull StorageData data, @NotNull Storage storage, @Nullable Map<String, Object> valueMap,
+                             @Nullable String primaryKey, @Nullable String[] value, @Nullable Set<String> changedKeys) {
+        this.data = data;
+        this.storage = storage;
+        this.valueMap = valueMap;
+        this.primaryKey = primaryKey;
+        this.value = value;
+        this.changedKeys = changedKeys;
+    }
+
+    /**
+     * @param data     The data being saved.
+     * @param valueMap The serialized snapshot to write.
+     * @return The save operation.
+     */
+    public static StorageOperation save(@NotNull StorageData data, @NotNull Map<String, Object> valueMap) {
+        return new StorageOperation(data, valueMap, null, null, null);
+    }
+
+    /**
+     * @param data     The data being saved.
+     * @param valueMap The serialized snapshot to write, shaped for the passed storage.
+     * @param storage  The storage the operation is committed to when it is not the data's own (e.g. a migration target).
+     * @return The save operation.
+     */
+    public static StorageOperation save(@NotNull StorageData data, @NotNull Map<String, Object> valueMap, @NotNull Storage storage) {
+        return new StorageOperation(data, storage, valueMap, null, null, null);
+    }
+
+    /**
+     * @param data        The data being saved.
+     * @param valueMap    The complete serialized snapshot (Used when the storage can not write the changes alone).
+     * @param changedKeys The keys of the snapshot that changed since it was last persisted.
+     * @return The save operation only writing the changed keys.
+     */
+    public static StorageOperation update(@NotNull StorageData data, @NotNull Map<String, Object> valueMap,
+                                          @NotNull Set<String> changedKeys) {
+        return new StorageOperation(data, valueMap, null, null, Collections.unmodifiableSet(changedKeys));
+    }
+
+    /**
+     * @param data       The data being deleted.
+     * @param primaryKey The key identifier.
+     * @param value      The value the key would be set to (Only for SQL).
+     * @return The delete operation.
+     */
+    public static StorageOperation delete(@NotNull StorageData data, @NotNull String primaryKey, @Nullable String... value) {
+        return new StorageOperation(data, null, primaryKey, ((value == null) ? new String[0] : value), null);
+    }
+
+    /**
+     * Combines the operation with the pending operation it replaces so no change of the earlier one is lost.
+     *
+     * @param previous The pending operation for the same table and primary key.
+     * @return The operation to keep in its place.
+     */
+    public StorageOperation mergeWith(@Nullable StorageOperation previous) {
+        if (previous == null || !isPartial()) return this;
+        if (previous.isDelete() || !previous.isPartial())
+            return new StorageOperation(getData(), getStorage(), getValueMap(), null, null, null);
+
+        final Set<String> keys = new HashSet<>(previous.getChangedKeys());
+        keys.addAll(getChangedKeys());
+        return new StorageOperation(getData(), getStorage(), getValueMap(), null, null, Collections.unmodifiableSet(keys));
+    }
+
+    /**
+     * Runs the operation against its storage immediately.
+     */
+    public void apply() {
+        if (isDelete()) getStorage().remove(getData(), getPrimaryKey(), getValue());
+        else getStorage().write(getData(), getValueMap());
+    }
+
+    /**
+     * @return The identity used to coalesce operations targeting the same table and primary key.
+     */
+    public String getKey() {
+        final Object identifier = getIdentifier();
+        return StorageCache.getKey(getData().getTable(), ((identifier != null) ? identifier : ("@" + System.identityHashCode(getData()))));
+    }
+
+    /**
+     * @return The primary key value the operation targets (Can return NULL when the snapshot has no primary key value).
+     */
+    public @Nullable Object getIdentifier() {
+        if (isDelete()) return ((getValue().length > 0) ? getValue()[0] : getPrimaryKey());
+
+        final Object identifier = getValueMap().get(getData().getPrimaryKey());
+        if (identifier != null || getStorage().getType() != Storage.Type.FLAT) return identifier;
+        return getSection(); // flat file snapshots are keyed by "<primary value>.<column>"
+    }
+
+    /**
+     * @return The values that need to be written keyed by their column, the way {@link StorageData#find(Object)} returns them.
+     */
+    public Map<String, Object> getRow() {
+        final Map<String, Object> changedValues = getChangedValues();
+        final String section = ((getStorage().getType() == Storage.Type.FLAT) ? getSection() : null);
+        if (section == null) return changedValues;
+
+        final Map<String, Object> row = new LinkedHashMap<>(changedValues.size() * 2);
+        row.put(getData().getPrimaryKey(), section);
+        for (Map.Entry<String, Object> entry : changedValues.entrySet())
+            row.put(entry.getKey().substring(section.length() + 1), entry.getValue());
+        return row;
+    }
+
+    /**
+     * @return The top-level section every path of the snapshot is under (NULL if they are spread over several).
+     */
+    private @Nullable String getSection() {
+        String section = null;
+        for (String path : getValueMap().keySet()) {
+            final int separator = path.indexOf('.');
+            if (separator <= 0) return null;
+
+            if (section == null) section = path.substring(0, separator);
+            else if (separator != section.length() || !path.startsWith(section)) return null;
+        }
+
+        return section;
+    }
+
+    // TAG getters & setters
+
+    public boolean isDelete() {return (valueMap == null);}
+
+    /**
+     * @return Whether only the changed keys of the snapshot need to be written.
+     */
+    public boolean isPartial() {return (changedKeys != null);}
+
+    /**
+     * @return The changed keys (NULL when the whole snapshot is written).
+     */
+    public @Nullable Set<String> getChangedKeys() {return changedKeys;}
+
+    /**
+     * @return The values that need to be written (Only the changed keys for a partial save).
+     */
+    public Map<String, Object> getChangedValues() {
+        if (!isPartial()) return getValueMap();
+
+        final Map<String, Object> changedValues = new LinkedHashMap<>(changedKeys.size() * 2);
+        for (String key : changedKeys) changedValues.put(key, getValueMap().get(key));
+        return changedValues;
+    }
+
+    public StorageData getData() {return data;}
+
+    /**
+     * @return The storage the operation is shaped for and committed to (The data's storage unless passed explicitly).
+     */
+    public Storage getStorage() {return storage;}
+
+    public Map<String, Object> getValueMap() {return valueMap;}
+
+    public String getPrimaryKey() {return primaryKey;}
+
+    public String[] getValue() {return value;}
+
+}
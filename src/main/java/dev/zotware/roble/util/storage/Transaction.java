@@ -0,0 +1,177 @@
+package dev.zotware.roble.util.storage;
+
+import dev.zotware.roble.exceptions.StorageException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class Transaction implements AutoCloseable {
+
+    private final Storage storage;
+    private final LinkedHashMap<String, StorageOperation> operations;
+    private final List<StorageData> saved;
+    private boolean finished;
+
+    /**
+     * Creates a unit of work collecting saves and deletes for one storage until it is committed.
+     * SQL storages write everything in one database transaction, flat files save each touched file once
+     * and binary files append everything in a single write.
+     *
+     * @param storage The storage the work is written to.
+     */
+    public Transaction(@NotNull Storage storage) {
+        this.storage = storage;
+        this.operations = new LinkedHashMap<>();
+        this.saved = new ArrayList<>();
+    }
+
+    /**
+     * Adds the changes of the data (Nothing is added when it has not changed since it was last persisted).
+     *
+     * @param data The data to save.
+     * @return The transaction.
+     */
+    public Transaction save(@NotNull StorageData data) {
+        checkData(data);
+
+        final StorageOperation operation = data.createSaveOperation();
+        if (operation != null) add(operation);
+        saved.add(data);
+        return this;
+    }
+
+    /**
+     * Adds the deletion of the primary key.
+     *
+     * @param data       The data describing the table.
+     * @param primaryKey The key identifier.
+     * @param value      The value the key would be set to (Only for SQL).
+     * @return The transaction.
+     */
+    public Transaction delete(@NotNull StorageData data, @NotNull String primaryKey, @Nullable String... value) {
+        checkData(data);
+
+        data.clearSnapshot();
+        add(StorageOperation.delete(data, primaryKey, value));
+        return this;
+    }
+
+    /**
+     * Writes every collected operation at once. Queued writes for the same rows are folded in first so an older
+     * queued snapshot can never overwrite what the transaction wrote.
+     *
+     * @throws StorageException When the operations could not be written (SQL storages roll everything back).
+     */
+    public synchronized void commit() throws StorageException {
+        if (finished) throw new StorageException("The transaction has already been committed or rolled back.");
+        finished = true;
+
+        final WriteQueue queue = storage.getWriteQueue();
+        final List<StorageOperation> batch, taken = new ArrayList<>();
+        try {
+            if (queue == null) storage.commit(batch = collect(null, taken));
+            else {
+                synchronized (queue.getFlushLock()) {
+                    try {
+                        storage.commit(batch = collect(queue, taken));
+                    } catch (StorageException | RuntimeException e) {
+                        restore(queue, taken); // queued writes stay queued
+                        throw e;
+                    }
+                }
+            }
+        } catch (StorageException | RuntimeException e) {
+            forgetSnapshots(); // the next save of each data writes it completely again
+            throw e;
+        }
+
+        batch.forEach(storage::updateCache);
+    }
+
+    /**
+     * Commits the transaction on the I/O executor.
+     *
+     * @return The future completed once everything is written, completed exceptionally when the commit failed.
+     */
+    public CompletableFuture<Void> commitAsync() {
+        return storage.supplyAsync(() -> {
+            commit();
+            return null;
+        });
+    }
+
+    /**
+     * Discards every collected operation.
+     */
+    public synchronized void rollback() {
+        if (finished) return;
+
+        finished = true;
+        operations.clear();
+        forgetSnapshots();
+    }
+
+    /**
+     * Rolls the transaction back if it was not committed.
+     */
+    @Override
+    public void close() {rollback();}
+
+    private synchronized void add(@NotNull StorageOperation operation) {
+        final String key = operation.getKey();
+        operations.put(key, operation.mergeWith(operations.remove(key)));
+    }
+
+    private List<StorageOperation> collect(@Nullable WriteQueue queue, @NotNull List<StorageOperation> taken) {
+        final List<StorageOperation> batch = new ArrayList<>(operations.size());
+        for (Map.Entry<String, StorageOperation> entry : operations.entrySet()) {
+            final StorageOperation queued = ((queue != null) ? queue.take(entry.getKey()) : null);
+            if (queued != null) taken.add(queued);
+            batch.add(entry.getValue().mergeWith(queued));
+        }
+
+        operations.clear();
+        return batch;
+    }
+
+    /**
+     * Puts the queued writes taken by a failed commit back, writing them directly once the queue no longer accepts them.
+     * Must be called while holding the queue's flush lock so no batch is written in between.
+     *
+     * @param queue The queue the writes were taken from.
+     * @param taken The taken writes.
+     */
+    private void restore(@NotNull WriteQueue queue, @NotNull List<StorageOperation> taken) {
+        final List<StorageOperation> rejected = new ArrayList<>();
+        for (StorageOperation operation : taken) if (!queue.requeue(operation)) rejected.add(operation);
+        if (!rejected.isEmpty()) storage.commitOrForget(rejected);
+    }
+
+    private void forgetSnapshots() {
+        for (StorageData data : saved) data.clearSnapshot();
+        saved.clear();
+    }
+
+    private void checkData(@NotNull StorageData data) {
+        if (isFinished()) throw new IllegalStateException("The transaction has already been committed or rolled back.");
+        if (data.getStorage() != storage)
+            throw new IllegalArgumentException("The data for \"" + data.getTable() + "\" belongs to a different storage.");
+    }
+
+    // TAG getters & setters
+
+    public Storage getStorage() {return storage;}
+
+    /**
+     * @return The amount of rows the transaction will write.
+     */
+    public synchronized int size() {return operations.size();}
+
+    public synchronized boolean isFinished() {return finished;}
+
+}
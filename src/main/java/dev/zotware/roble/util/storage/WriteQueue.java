@@ -0,0 +1,212 @@
+package dev.zotware.roble.util.storage;
+
+import dev.zotware.roble.exceptions.StorageException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class WriteQueue {
+
+    private final Storage storage;
+    private final Logger logger;
+    private final int flushSize;
+    private final long flushInterval;
+    private final Thread writer;
+    private final Object flushLock;
+
+    private LinkedHashMap<String, StorageOperation> pending, writing;
+    private int peakSize;
+    private volatile boolean stopping;
+    private boolean closed; // set under the flush lock once the final batch was written
+
+    /**
+     * Creates a write-behind queue that coalesces operations per table and primary key and writes them in the background.
+     *
+     * @param storage       The storage the queue writes to.
+     * @param logger        The logger used to report failures.
+     * @param flushSize     The amount of pending operations that triggers an early flush.
+     * @param flushInterval The maximum milliseconds an operation waits before being flushed.
+     */
+    public WriteQueue(@NotNull Storage storage, @NotNull Logger logger, int flushSize, long flushInterval) {
+        this.storage = storage;
+        this.logger = logger;
+        this.flushSize = Math.max(1, flushSize);
+        this.flushInterval = Math.max(1, flushInterval);
+        this.pending = new LinkedHashMap<>();
+        this.flushLock = new Object();
+
+        writer = new Thread(this::run, "Roble-Write-Behind-" + storage.getType().name());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues the operation, replacing (and merging the changes of) any pending operation for the same table and primary key.
+     * Operations are still accepted while the queue drains, so they are written after everything queued before them.
+     *
+     * @param operation The operation to queue.
+     * @return Whether the operation was queued (False once the final batch was written, the caller writes it itself then).
+     */
+    public synchronized boolean enqueue(@NotNull StorageOperation operation) {
+        if (closed || !writer.isAlive()) return false;
+
+        final String key = operation.getKey();
+        final StorageOperation previous = pending.remove(key); // re-inserting keeps the queue ordered by the latest operation
+        pending.put(key, operation.mergeWith(previous));
+        if (pending.size() > peakSize) peakSize = pending.size();
+        if (pending.size() >= flushSize || stopping) notifyAll();
+        return true;
+    }
+
+    /**
+     * Puts an operation removed with {@link #take(String)} back, behind any operation queued for the same key since
+     * so the newer changes still win.
+     *
+     * @param operation The taken operation.
+     * @return Whether the operation was queued (False once the final batch was written, the caller writes it itself then).
+     */
+    public synchronized boolean requeue(@NotNull StorageOperation operation) {
+        if (closed || !writer.isAlive()) return false;
+
+        final String key = operation.getKey();
+        final StorageOperation newer = pending.get(key);
+        pending.put(key, ((newer != null) ? newer.mergeWith(operation) : operation));
+        if (pending.size() > peakSize) peakSize = pending.size();
+        if (pending.size() >= flushSize || stopping) notifyAll();
+        return true;
+    }
+
+    /**
+     * Writes the pending operations (And those queued meanwhile) right away and stops accepting operations once
+     * nothing is left, waiting for it to happen.
+     *
+     * @param timeout The maximum milliseconds to wait.
+     * @return Whether every pending operation was written before the deadline.
+     */
+    public boolean drain(long timeout) {
+        synchronized (this) {
+            stopping = true;
+            notifyAll();
+        }
+
+        try {
+            writer.join(Math.max(1, timeout));
+        } catch (InterruptedException e) {Thread.currentThread().interrupt();}
+
+        if (writer.isAlive()) {
+            logger.warning("The write-behind queue for " + storage.getType().name() + " did not finish within "
+                    + timeout + "ms (" + size() + " operations left unwritten).");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the pending operation for the key so the caller can write it itself.
+     * Only call this while holding {@link #getFlushLock()} so no batch is being written at the same time.
+     *
+     * @param key The key from {@link StorageOperation#getKey()}.
+     * @return The pending operation or NULL if there is none.
+     */
+    public synchronized StorageOperation take(@NotNull String key) {return pending.remove(key);}
+
+    /**
+     * @param key The key from {@link StorageOperation#getKey()}.
+     * @return The operation waiting for or being written for the key (NULL if there is none).
+     */
+    public synchronized StorageOperation peek(@NotNull String key) {
+        final StorageOperation operation = pending.get(key);
+        return ((operation == null && writing != null) ? writing.get(key) : operation);
+    }
+
+    /**
+     * @return The amount of operations waiting to be written.
+     */
+    public synchronized int size() {return pending.size();}
+
+    /**
+     * @return The largest amount of operations that waited at once.
+     */
+    public synchronized int getPeakSize() {return peakSize;}
+
+    private void run() {
+        while (true) {
+            synchronized (this) {
+                final long deadline = (System.currentTimeMillis() + flushInterval);
+                long remaining;
+                while (!stopping && pending.size() < flushSize && (remaining = (deadline - System.currentTimeMillis())) > 0) {
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        stopping = true;
+                        break;
+                    }
+                }
+
+                if (pending.isEmpty() && !stopping) continue;
+            }
+
+            if (stopping && close()) return;
+
+            synchronized (flushLock) { // the batch is taken under the flush lock so transactions never interleave with it
+                final List<StorageOperation> batch;
+                synchronized (this) {
+                    batch = new ArrayList<>(pending.values());
+                    writing = pending; // kept readable until written so finds never fall back to the older stored row
+                    pending = new LinkedHashMap<>();
+                }
+
+                if (batch.isEmpty()) continue;
+
+                try {
+                    storage.commit(batch);
+                } catch (StorageException | RuntimeException e) {
+                    logger.log(Level.WARNING, "A queued batch of " + batch.size() + " writes failed, they are written completely on the next save.", e);
+                    storage.forget(batch);
+                } finally {
+                    synchronized (this) {
+                        writing = null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting operations if nothing is left to write (Taken under the flush lock so no batch is in flight).
+     *
+     * @return Whether the queue is closed.
+     */
+    private boolean close() {
+        synchronized (flushLock) {
+            synchronized (this) {
+                if (!pending.isEmpty()) return false;
+
+                closed = true;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return Whether the final batch was written and operations are no longer accepted.
+     */
+    public synchronized boolean isClosed() {return closed;}
+
+    // TAG getters & setters
+
+    public int getFlushSize() {return flushSize;}
+
+    public long getFlushInterval() {return flushInterval;}
+
+    /**
+     * @return The lock held while a batch is taken and written.
+     */
+    public Object getFlushLock() {return flushLock;}
+
+}
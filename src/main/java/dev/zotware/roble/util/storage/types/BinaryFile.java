@@ -0,0 +1,538 @@
+package dev.zotware.roble.util.storage.types;
+
+import dev.zotware.roble.RoblePlugin;
+import dev.zotware.roble.exceptions.StorageException;
+import dev.zotware.roble.util.storage.Storage;
+import dev.zotware.roble.util.storage.StorageData;
+import dev.zotware.roble.util.storage.StorageMetrics;
+import dev.zotware.roble.util.storage.StorageOperation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+public class BinaryFile extends Storage {
+
+    private static final byte RECORD_LIVE = 0, RECORD_DELETED = 1;
+    private static final byte TAG_NULL = 0, TAG_STRING = 1, TAG_INT = 2, TAG_LONG = 3, TAG_DOUBLE = 4, TAG_FLOAT = 5,
+            TAG_BOOLEAN = 6, TAG_BYTES = 7, TAG_SHORT = 8, TAG_BYTE = 9, TAG_LIST = 10, TAG_UUID = 11, TAG_MAP = 12;
+
+    private final RoblePlugin INSTANCE;
+    private final File file;
+    private final Map<String, Long> index;
+    private final ReentrantReadWriteLock lock; // read: reading or appending records, write: replacing or unmapping the file
+
+    private FileChannel channel;
+    private volatile MappedByteBuffer mapped;
+    private long endOffset, deadBytes;
+
+    /**
+     * Creates a storage that appends length-prefixed binary records to a single file and reads them through a memory map.
+     * Only the offset of each record is kept in memory, so a record is decoded only when it is read.
+     *
+     * @param instance The plugin instance.
+     * @param filePath The file name (relative to the data folder) excluding the extension.
+     */
+    public BinaryFile(@NotNull RoblePlugin instance, @NotNull String filePath) {
+        super(instance, Type.BINARY);
+        this.INSTANCE = instance;
+        this.file = new File(instance.getDataFolder(), filePath + ".dat");
+        this.index = new ConcurrentHashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    @Override
+    public void register() {
+        final long timing = startTiming();
+        lock.writeLock().lock();
+        try {
+            close();
+            if (!file.getParentFile().exists()) file.getParentFile().mkdirs();
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buildIndex();
+
+            if (deadBytes > (endOffset / 2) && deadBytes > 1_048_576) compact();
+        } catch (IOException e) {
+            e.printStackTrace();
+            INSTANCE.getLogger().warning("The binary storage \"" + file.getName() + "\" was unable to be opened.");
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        recordTiming("*", StorageMetrics.Operation.REGISTER, timing, index.size());
+    }
+
+    @Override
+    public boolean isReady() {return (channel != null && channel.isOpen());}
+
+    @Override
+    public void write(@NotNull StorageData data, @NotNull Map<String, Object> valueMap) {
+        apply(Collections.singletonList(StorageOperation.save(data, valueMap)));
+    }
+
+    @Override
+    public void remove(@NotNull StorageData data, @NotNull String primaryKey, @Nullable String... value) {
+        apply(Collections.singletonList(StorageOperation.delete(data, primaryKey, value)));
+    }
+
+    /**
+     * Appends every operation to the end of the file in a single write.
+     *
+     * @param operations The operations to write.
+     */
+    @Override
+    public void apply(@NotNull List<StorageOperation> operations) {
+        try {
+            commit(operations);
+        } catch (StorageException e) {
+            e.printStackTrace();
+            INSTANCE.getLogger().warning(e.getMessage());
+        }
+    }
+
+    /**
+     * Appends the operations the same way as {@link #apply(List)}.
+     *
+     * @param operations The operations to write.
+     * @throws StorageException When the records could not be encoded or appended (Nothing is indexed in that case).
+     */
+    @Override
+    public void commit(@NotNull List<StorageOperation> operations) throws StorageException {
+        if (operations.isEmpty()) return;
+
+        final long timing = startTiming();
+        final Map<String, int[]> recordOffsets = new LinkedHashMap<>(); // key -> {offset in the batch (-1 when deleted), length}
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (StorageOperation operation : operations) {
+                final Object identifier = operation.getIdentifier();
+                if (identifier == null) {
+                    INSTANCE.getLogger().warning("A record for \"" + operation.getData().getTable()
+                            + "\" was skipped as it has no value for the primary key \"" + operation.getData().getPrimaryKey() + "\".");
+                    continue;
+                }
+
+                final String key = getKey(operation.getData(), identifier);
+                final ByteArrayOutputStream record = new ByteArrayOutputStream();
+                try (DataOutputStream recordOut = new DataOutputStream(record)) {
+                    recordOut.writeByte(operation.isDelete() ? RECORD_DELETED : RECORD_LIVE);
+                    writeString(recordOut, key);
+                    if (!operation.isDelete()) writeMap(recordOut, operation.getValueMap());
+                }
+
+                recordOffsets.remove(key);
+                recordOffsets.put(key, new int[]{(operation.isDelete() ? -1 : out.size()), (4 + record.size())});
+                out.writeInt(record.size());
+                record.writeTo(out);
+            }
+        } catch (IOException e) {
+            throw new StorageException("Unable to encode " + operations.size() + " records (" + e.getMessage() + ").", e);
+        }
+
+        lock.readLock().lock(); // appending never moves existing records, so reads may continue meanwhile
+        try {
+            synchronized (this) {
+                if (!isReady()) throw new StorageException("The binary storage \"" + file.getName() + "\" is not open.");
+
+                final long start = endOffset;
+                try {
+                    final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                    long position = start;
+                    while (buffer.hasRemaining()) position += channel.write(buffer, position);
+                    endOffset = position;
+                } catch (IOException e) {
+                    throw new StorageException("Unable to append to \"" + file.getName() + "\" (" + e.getMessage() + ").", e);
+                }
+
+                deadBytes += (bytes.size() - recordOffsets.values().stream().mapToInt(record -> record[1]).sum());
+                for (Map.Entry<String, int[]> entry : recordOffsets.entrySet()) {
+                    final int[] record = entry.getValue();
+                    final Long previous = ((record[0] < 0) ? index.remove(entry.getKey()) : index.put(entry.getKey(), (start + record[0])));
+                    if (previous != null) deadBytes += (4 + readInt(previous));
+                    if (record[0] < 0) deadBytes += record[1];
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        recordBatch(operations, timing);
+    }
+
+    /**
+     * Streams the table's records in file order, which keeps reads sequential and the order stable between runs.
+     *
+     * @param data     The data describing the table.
+     * @param consumer The consumer receiving each row.
+     * @throws StorageException When a record can not be read.
+     */
+    @Override
+    public void load(@NotNull StorageData data, @NotNull Consumer<Map<String, Object>> consumer) throws StorageException {
+        final String prefix = (data.getTable() + '\0');
+        final List<Map.Entry<String, Long>> records = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : index.entrySet())
+            if (entry.getKey().startsWith(prefix)) records.add(new AbstractMap.SimpleEntry<>(entry));
+
+        records.sort(Map.Entry.comparingByValue());
+        for (Map.Entry<String, Long> record : records) {
+            final Map<String, Object> row = read(record.getKey()); // looked up again as a compaction may have moved it
+            if (row != null) consumer.accept(row);
+        }
+    }
+
+    @Override
+    public @Nullable Map<String, Object> find(@NotNull StorageData data, @NotNull Object primaryValue) throws StorageException {
+        return read(getKey(data, primaryValue));
+    }
+
+    /**
+     * Rewrites the file with only the latest version of each record, dropping replaced and deleted records.
+     * Reads and writes wait until the compacted file is mapped again.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            compactFile();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactFile() {
+        if (!isReady()) return;
+
+        final File compactFile = new File(file.getPath() + ".compact");
+        try (FileChannel compactChannel = FileChannel.open(compactFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final ByteBuffer view = getView(endOffset);
+            for (long offset : new TreeSet<>(index.values())) {
+                final ByteBuffer record = view.duplicate();
+                record.position((int) offset).limit((int) (offset + 4 + view.getInt((int) offset)));
+                while (record.hasRemaining()) compactChannel.write(record);
+            }
+            compactChannel.force(true);
+        } catch (IOException e) {
+            e.printStackTrace();
+            INSTANCE.getLogger().warning("The binary storage \"" + file.getName() + "\" was unable to be compacted.");
+            return;
+        }
+
+        try {
+            close();
+            Files.move(compactFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buildIndex();
+        } catch (IOException e) {
+            e.printStackTrace();
+            INSTANCE.getLogger().warning("The binary storage \"" + file.getName() + "\" was unable to be reopened after compacting.");
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (channel == null) return;
+
+            unmap();
+            try {
+                channel.force(true);
+                channel.close();
+            } catch (IOException e) {e.printStackTrace();}
+
+            channel = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // TAG file helpers
+
+    private void buildIndex() throws IOException {
+        index.clear();
+        deadBytes = 0;
+        unmap();
+
+        final long size = channel.size();
+        if (size > Integer.MAX_VALUE) throw new IOException("The binary storage \"" + file.getName() + "\" exceeds 2GB.");
+
+        final ByteBuffer view = getView(size);
+        long offset = 0;
+        while (offset + 4 <= size) {
+            final int length = view.getInt((int) offset);
+            if (length <= 0 || offset + 4 + length > size) break; // a partially written record
+
+            final ByteBuffer record = view.duplicate();
+            record.position((int) offset + 4).limit((int) (offset + 4 + length));
+
+            final byte type;
+            final String key;
+            try {
+                type = record.get();
+                key = readString(record);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {break;}
+
+            final Long previous = ((type == RECORD_DELETED) ? index.remove(key) : index.put(key, offset));
+            if (previous != null) deadBytes += (4 + view.getInt(previous.intValue()));
+            if (type == RECORD_DELETED) deadBytes += (4 + length);
+
+            offset += (4 + length);
+        }
+
+        if (offset < size) {
+            INSTANCE.getLogger().warning("The binary storage \"" + file.getName() + "\" had " + (size - offset)
+                    + " trailing bytes from an incomplete write which were removed.");
+            unmap();
+            channel.truncate(offset);
+        }
+
+        endOffset = offset;
+    }
+
+    private @Nullable Map<String, Object> read(@NotNull String key) throws StorageException {
+        lock.readLock().lock();
+        try {
+            final Long offset = index.get(key);
+            return ((offset != null) ? read(offset) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Object> read(long offset) throws StorageException {
+        try {
+            final ByteBuffer view = getView(offset + 4);
+            final ByteBuffer record = view.duplicate();
+            record.position((int) offset + 4).limit((int) (offset + 4 + view.getInt((int) offset)));
+            if (record.get() == RECORD_DELETED) return null;
+
+            readString(record);
+            return readMap(record);
+        } catch (IOException | RuntimeException e) {
+            throw new StorageException("Unable to read the record at " + offset + " in \"" + file.getName() + "\".", e);
+        }
+    }
+
+    private int readInt(long offset) {
+        try {
+            return getView(offset + 4).getInt((int) offset);
+        } catch (IOException e) {return 0;}
+    }
+
+    /**
+     * @param requiredSize The amount of bytes the view must cover.
+     * @return A read-only mapping of the file, remapped when the file has grown past the current mapping.
+     * @throws IOException When the file can not be mapped.
+     */
+    private ByteBuffer getView(long requiredSize) throws IOException {
+        MappedByteBuffer current = mapped;
+        if (current != null && current.capacity() >= requiredSize) return current;
+
+        synchronized (this) {
+            current = mapped;
+            if (current == null || current.capacity() < requiredSize) {
+                if (channel == null) throw new IOException("The binary storage \"" + file.getName() + "\" is closed.");
+                mapped = (current = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.max(requiredSize, channel.size())));
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Releases the current mapping right away instead of when it is garbage collected, so the file can be truncated or
+     * replaced (Only call this while holding the write lock, no reader may still use the mapping).
+     */
+    private void unmap() {
+        final MappedByteBuffer current = mapped;
+        mapped = null;
+        if (current == null) return;
+
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe"); // Java 9+
+            final Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(unsafeField.get(null), current);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            try {
+                final Method cleanerMethod = current.getClass().getMethod("cleaner"); // Java 8
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(current);
+                if (cleaner != null) cleaner.getClass().getMethod("clean").invoke(cleaner);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {} // left to the garbage collector
+        }
+    }
+
+    private String getKey(@NotNull StorageData data, @NotNull Object identifier) {return (data.getTable() + '\0' + identifier);}
+
+    // TAG codec
+
+    private static void writeVarInt(@NotNull DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(@NotNull ByteBuffer buffer) {
+        int value = 0, shift = 0;
+        byte current;
+        do {
+            if (shift > 28) throw new IllegalArgumentException("The var-int is too long.");
+            current = buffer.get();
+            value |= ((current & 0x7F) << shift);
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(@NotNull ByteBuffer buffer) {
+        final int length = readVarInt(buffer);
+        if (length < 0 || length > buffer.remaining()) throw new IllegalArgumentException("The string length is invalid.");
+
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeMap(@NotNull DataOutputStream out, @NotNull Map<?, ?> map) throws IOException {
+        writeVarInt(out, map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeString(out, String.valueOf(entry.getKey()));
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, Object> readMap(@NotNull ByteBuffer buffer) {
+        final int size = readVarInt(buffer);
+        final Map<String, Object> map = new LinkedHashMap<>(size * 2);
+        for (int i = -1; ++i < size; ) map.put(readString(buffer), readValue(buffer));
+        return map;
+    }
+
+    private static void writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException {
+        if (value == null) out.writeByte(TAG_NULL);
+        else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof byte[]) {
+            out.writeByte(TAG_BYTES);
+            writeVarInt(out, ((byte[]) value).length);
+            out.write((byte[]) value);
+        } else if (value instanceof Short) {
+            out.writeByte(TAG_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Collection) {
+            out.writeByte(TAG_LIST);
+            writeVarInt(out, ((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) writeValue(out, element);
+        } else if (value instanceof UUID) {
+            out.writeByte(TAG_UUID);
+            out.writeLong(((UUID) value).getMostSignificantBits());
+            out.writeLong(((UUID) value).getLeastSignificantBits());
+        } else if (value instanceof Map) {
+            out.writeByte(TAG_MAP);
+            writeMap(out, (Map<?, ?>) value);
+        } else {
+            out.writeByte(TAG_STRING);
+            writeString(out, ((value instanceof Enum) ? ((Enum<?>) value).name() : value.toString()));
+        }
+    }
+
+    private static Object readValue(@NotNull ByteBuffer buffer) {
+        final byte tag = buffer.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(buffer);
+            case TAG_INT:
+                return buffer.getInt();
+            case TAG_LONG:
+                return buffer.getLong();
+            case TAG_DOUBLE:
+                return buffer.getDouble();
+            case TAG_FLOAT:
+                return buffer.getFloat();
+            case TAG_BOOLEAN:
+                return (buffer.get() != 0);
+            case TAG_BYTES: {
+                final byte[] bytes = new byte[readVarInt(buffer)];
+                buffer.get(bytes);
+                return bytes;
+            }
+            case TAG_SHORT:
+                return buffer.getShort();
+            case TAG_BYTE:
+                return buffer.get();
+            case TAG_LIST: {
+                final int size = readVarInt(buffer);
+                final List<Object> list = new ArrayList<>(size);
+                for (int i = -1; ++i < size; ) list.add(readValue(buffer));
+                return list;
+            }
+            case TAG_UUID:
+                return new UUID(buffer.getLong(), buffer.getLong());
+            case TAG_MAP:
+                return readMap(buffer);
+            default:
+                throw new IllegalArgumentException("Unknown value tag " + tag + ".");
+        }
+    }
+
+    // TAG getters & setters
+
+    public File getFile() {return file;}
+
+    /**
+     * @return The amount of live records across all tables.
+     */
+    public int getRecordCount() {return index.size();}
+
+    /**
+     * @return The bytes taken up by replaced or deleted records (Reclaimed by {@link #compact()}).
+     */
+    public synchronized long getDeadBytes() {return deadBytes;}
+
+}
@@ -1,26 +1,244 @@
 package dev.zotware.roble.util.storage.types;
 
 import dev.zotware.roble.RoblePlugin;
+import dev.zotware.roble.exceptions.StorageException;
 import dev.zotware.roble.util.Configuration;
 import dev.zotware.roble.util.storage.Storage;
+import dev.zotware.roble.util.storage.StorageData;
+import dev.zotware.roble.util.storage.StorageMetrics;
+import dev.zotware.roble.util.storage.StorageOperation;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Consumer;
 
 public class FlatFile extends Storage {
 
+    private final RoblePlugin INSTANCE;
     private final String filePath;
+    private final int shardCount;
     private Configuration configuration;
+    private Shard[] shards;
+
+    /**
+     * Creates a flat file storage kept in a single YAML file that is rewritten on every save.
+     *
+     * @param instance The plugin instance.
+     * @param filePath The configuration file name excluding the extension.
+     */
+    public FlatFile(@NotNull RoblePlugin instance, @NotNull String filePath) {this(instance, filePath, 1);}
 
-    public FlatFile(@NotNull RoblePlugin instance, @NotNull String filePath) {
+    /**
+     * Creates a flat file storage whose top-level keys are spread across hash buckets, each in its own YAML file.
+     * A save only rewrites the buckets it touches, so its cost scales with the bucket rather than the whole dataset.
+     *
+     * @param instance   The plugin instance.
+     * @param filePath   The directory (relative to the data folder) the bucket files are kept in.
+     * @param shardCount The amount of bucket files (1 keeps the single file layout).
+     */
+    public FlatFile(@NotNull RoblePlugin instance, @NotNull String filePath, int shardCount) {
         super(instance, Type.FLAT);
+        this.INSTANCE = instance;
         this.filePath = filePath;
+        this.shardCount = Math.max(1, shardCount);
+    }
+
+    @Override
+    public void register() {
+        final long timing = startTiming();
+        if (!isSharded()) {
+            configuration = new Configuration(filePath);
+            shards = new Shard[]{new Shard(configuration, configuration.getFile())};
+            recordTiming("*", StorageMetrics.Operation.REGISTER, timing, 0);
+            return;
+        }
+
+        final File directory = new File(INSTANCE.getDataFolder(), filePath);
+        if (!directory.exists() && !directory.mkdirs())
+            INSTANCE.getLogger().warning("The directory \"" + directory.getPath() + "\" was unable to be created.");
+
+        configuration = null;
+        shards = new Shard[shardCount];
+        recordTiming("*", StorageMetrics.Operation.REGISTER, timing, 0);
     }
 
     @Override
-    public void register() {configuration = new Configuration(filePath);}
+    public boolean isReady() {return (shards != null);}
+
+    @Override
+    public void write(@NotNull StorageData data, @NotNull Map<String, Object> valueMap) {
+        apply(Collections.singletonList(StorageOperation.save(data, valueMap)));
+    }
+
+    @Override
+    public void remove(@NotNull StorageData data, @NotNull String primaryKey, @Nullable String... value) {
+        apply(Collections.singletonList(StorageOperation.delete(data, primaryKey, value)));
+    }
 
+    /**
+     * Streams every top-level section as a row, reading the structure columns from it (The primary key defaults to the section key).
+     *
+     * @param data     The data describing the structure.
+     * @param consumer The consumer receiving each row keyed by the structure columns.
+     */
     @Override
-    public boolean isReady() {return true;}
+    public void load(@NotNull StorageData data, @NotNull Consumer<Map<String, Object>> consumer) {
+        for (int i = -1; ++i < shards.length; ) {
+            final Shard shard = getShard(i);
+            final List<String> keys;
+            synchronized (shard) {
+                keys = new ArrayList<>(shard.yaml.getKeys(false));
+            }
+
+            for (String key : keys) {
+                final Map<String, Object> row = readRow(shard, data, key);
+                if (row != null) consumer.accept(row);
+            }
+        }
+    }
+
+    /**
+     * Reads the section stored under the primary key value.
+     *
+     * @param data         The data describing the structure.
+     * @param primaryValue The section key.
+     * @return The row keyed by the structure columns or NULL if the section does not exist.
+     */
+    @Override
+    public @Nullable Map<String, Object> find(@NotNull StorageData data, @NotNull Object primaryValue) {
+        final String key = String.valueOf(primaryValue);
+        return readRow(getShard(getShardIndex(key)), data, key);
+    }
+
+    /**
+     * Applies every operation to the configuration and saves each touched file once (Partial saves only set the changed keys).
+     *
+     * @param operations The operations to write.
+     */
+    @Override
+    public void apply(@NotNull List<StorageOperation> operations) {
+        try {
+            commit(operations);
+        } catch (StorageException e) {
+            e.printStackTrace();
+            INSTANCE.getLogger().warning(e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the operations the same way as {@link #apply(List)}.
+     *
+     * @param operations The operations to write.
+     * @throws StorageException When a touched file could not be saved.
+     */
+    @Override
+    public void commit(@NotNull List<StorageOperation> operations) throws StorageException {
+        if (operations.isEmpty()) return;
+
+        final long timing = startTiming();
+        final Map<Integer, List<Map.Entry<String, Object>>> changes = new LinkedHashMap<>();
+        for (StorageOperation operation : operations) {
+            if (operation.isDelete()) {
+                changes.computeIfAbsent(getShardIndex(operation.getPrimaryKey()), index -> new ArrayList<>())
+                        .add(new AbstractMap.SimpleEntry<>(operation.getPrimaryKey(), null));
+                continue;
+            }
+
+            for (Map.Entry<String, Object> entry : operation.getChangedValues().entrySet())
+                changes.computeIfAbsent(getShardIndex(entry.getKey()), index -> new ArrayList<>()).add(entry);
+        }
 
-    public Configuration getConfiguration() {return configuration;}
+        for (Map.Entry<Integer, List<Map.Entry<String, Object>>> shardChanges : changes.entrySet()) {
+            final Shard shard = getShard(shardChanges.getKey());
+            synchronized (shard) {
+                for (Map.Entry<String, Object> entry : shardChanges.getValue()) shard.yaml.set(entry.getKey(), entry.getValue());
+
+                try {
+                    shard.yaml.save(shard.file);
+                } catch (IOException e) {
+                    throw new StorageException("Unable to save \"" + shard.file.getName() + "\" (" + e.getMessage() + ").", e);
+                }
+            }
+        }
+
+        recordBatch(operations, timing);
+    }
+
+    private Map<String, Object> readRow(@NotNull Shard shard, @NotNull StorageData data, @NotNull String key) {
+        final Map<String, Object> row = new LinkedHashMap<>();
+        synchronized (shard) {
+            final ConfigurationSection section = shard.yaml.getConfigurationSection(key);
+            if (section == null) return null;
+
+            for (String column : data.getStructure()) {
+                final String columnName = StorageData.getColumnName(column);
+                row.put(columnName, section.get(columnName));
+            }
+        }
+
+        if (row.get(data.getPrimaryKey()) == null) row.put(data.getPrimaryKey(), key);
+        return row;
+    }
+
+    /**
+     * @param path The configuration path.
+     * @return The bucket holding the path (Decided by the top-level key so a record never spans buckets).
+     */
+    private int getShardIndex(@NotNull String path) {
+        if (!isSharded()) return 0;
+
+        final int separator = path.indexOf('.');
+        return Math.floorMod((separator < 0 ? path : path.substring(0, separator)).hashCode(), shardCount);
+    }
+
+    private synchronized Shard getShard(int index) {
+        Shard shard = shards[index];
+        if (shard == null) {
+            final File file = new File(new File(INSTANCE.getDataFolder(), filePath), ("bucket-" + index + ".yml"));
+            shards[index] = (shard = new Shard(YamlConfiguration.loadConfiguration(file), file));
+        }
+
+        return shard;
+    }
+
+    // TAG getters & setters
+
+    /**
+     * @return The single file configuration.
+     * @throws IllegalStateException When the storage is sharded (Use {@link #getConfiguration(String)} instead).
+     */
+    public Configuration getConfiguration() {
+        if (isSharded()) throw new IllegalStateException("The storage \"" + filePath + "\" is split into "
+                + shardCount + " buckets, get the bucket of a key through getConfiguration(key).");
+        return configuration;
+    }
+
+    /**
+     * @param key The top-level key (Or any path below it).
+     * @return The configuration of the bucket holding the key (The single file configuration when not sharded).
+     */
+    public FileConfiguration getConfiguration(@NotNull String key) {return getShard(getShardIndex(key)).yaml;}
+
+    public boolean isSharded() {return (shardCount > 1);}
+
+    public int getShardCount() {return shardCount;}
+
+    private class Shard {
+
+        private final FileConfiguration yaml;
+        private final File file;
+
+        private Shard(@NotNull FileConfiguration yaml, @NotNull File file) {
+            this.yaml = yaml;
+            this.file = file;
+        }
+
+    }
 
-}
\ No newline at end of file
+}
@@ -2,24 +2,61 @@ package dev.zotware.roble.util.storage.types;
 
 import dev.zotware.roble.RoblePlugin;
 import dev.zotware.roble.exceptions.StorageException;
+import dev.zotware.roble.util.storage.ConnectionPool;
+import dev.zotware.roble.util.storage.QueryTemplate;
 import dev.zotware.roble.util.storage.Storage;
+import dev.zotware.roble.util.storage.StorageData;
+import dev.zotware.roble.util.storage.StorageMetrics;
+import dev.zotware.roble.util.storage.StorageOperation;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
-import java.sql.Statement;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class SQLStorage extends Storage {
-    public Connection CONNECTION;
+    /**
+     * @deprecated Connections are pooled, borrow one with {@link #getConnection()} (Or {@link #getReadConnection()})
+     * in a try-with-resources block instead. Kept for plugins built against the single shared connection: every call
+     * borrows a pooled connection and returns it right away, except statements, which keep theirs until they are
+     * closed (So they must be closed). Transactions (setAutoCommit, commit, rollback, savepoints) are not supported
+     * and closing it does nothing.
+     */
+    @Deprecated
+    public final Connection CONNECTION = createLegacyConnection();
+    private final RoblePlugin INSTANCE;
+    private ConnectionPool pool, readPool;
     private String filePath, host, database, username, password;
-    private boolean useSSL;
+    private boolean useSSL, cursorFetch, integrityCheck;
+    private int minimumPoolSize, maximumPoolSize, readerPoolSize, batchSize, statementCacheSize, fetchSize, cacheSize;
+    private JournalMode journalMode;
+    private Synchronous synchronous;
+    private long connectionTimeout, idleTimeout, leakThreshold;
 
     public SQLStorage(@NotNull RoblePlugin instance, @NotNull Type type, @Nullable String... properties) throws StorageException {
         super(instance, type);
+        this.INSTANCE = instance;
         setUseSSL(false);
         setFilePath(null);
+        setPoolSize(2, 10);
+        setReaderPoolSize(4);
+        setConnectionTimeout(30_000L);
+        setIdleTimeout(600_000L);
+        setLeakThreshold(0L);
+        setBatchSize(500);
+        setStatementCacheSize(64);
+        setFetchSize(1000);
+        setCursorFetch(false);
+        setJournalMode(null);
+        setSynchronous(null);
+        setCacheSize(0);
+        setIntegrityCheck(true);
 
         switch (type) {
             case MariaDB:
@@ -49,6 +86,21 @@ public class SQLStorage extends Storage {
 
     }
 
+    /**
+     * Switches SQLite to WAL journaling with NORMAL synchronization and a 16MB page cache, skips the integrity check on
+     * register and routes every save through a single write-behind thread that commits queued writes in one transaction
+     * per flush. Readers keep running on their own connections alongside the writer. Call before {@link #register()}.
+     *
+     * @param flushInterval The maximum milliseconds a write waits before being committed.
+     */
+    public void enablePerformanceMode(long flushInterval) {
+        setJournalMode(JournalMode.WAL);
+        setSynchronous(Synchronous.NORMAL);
+        setCacheSize(-16_000);
+        setIntegrityCheck(false);
+        enableWriteBehind(getBatchSize(), flushInterval);
+    }
+
     /**
      * Creates a table with the provided properties.
      *
@@ -65,18 +117,314 @@ public class SQLStorage extends Storage {
         }
         syntax.append(");");
 
-        try (Statement statement = CONNECTION.createStatement()) {
+        final long timing = startTiming();
+        try (Connection connection = getConnection(); Statement statement = connection.createStatement()) {
             statement.executeUpdate(syntax.toString());
         } catch (SQLException e) {e.printStackTrace();}
+        recordTiming(tableName, StorageMetrics.Operation.CREATE_TABLE, timing, 0);
+    }
+
+    /**
+     * Creates the table on the I/O executor.
+     *
+     * @param tableName The table name.
+     * @param columns   The columns and variable identifier seperated by a space.
+     * @return The future completed once the statement ran.
+     */
+    public CompletableFuture<Void> createTableAsync(@NotNull String tableName, @NotNull String... columns) {
+        return supplyAsync(() -> {
+            createTable(tableName, columns);
+            return null;
+        });
+    }
+
+    @Override
+    public void write(@NotNull StorageData data, @NotNull Map<String, Object> valueMap) {
+        final QueryTemplate template = QueryTemplate.of(getType(), data);
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(template.getUpsertSQL(valueMap))) {
+            template.bindUpsert(statement, valueMap);
+            statement.executeUpdate();
+        } catch (SQLException e) {e.printStackTrace();}
     }
 
     @Override
-    public void register() {
+    public void remove(@NotNull StorageData data, @NotNull String primaryKey, @Nullable String... value) {
+        if (value == null || value.length <= 0) return;
+
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(QueryTemplate.of(getType(), data).getDeleteSQL(primaryKey))) {
+            statement.setString(1, value[0]);
+            statement.executeUpdate();
+        } catch (SQLException e) {e.printStackTrace();}
+    }
+
+    /**
+     * Streams the table through a forward-only result set on a read connection.
+     * MySQL streams row by row unless cursor fetching is enabled, in which case rows arrive in chunks of {@link #getFetchSize()}.
+     *
+     * @param data     The data describing the table.
+     * @param consumer The consumer receiving each row keyed by the structure columns.
+     * @throws StorageException When the rows can not be read.
+     */
+    @Override
+    public void load(@NotNull StorageData data, @NotNull Consumer<Map<String, Object>> consumer) throws StorageException {
+        stream(data, QueryTemplate.of(getType(), data).getSelectSQL(), null, consumer);
+    }
+
+    /**
+     * Streams the table like {@link #load(StorageData, Consumer)}, ordered by the primary key and starting after the passed value
+     * so an interrupted pass can be resumed without reading the rows before it.
+     *
+     * @param data       The data describing the table.
+     * @param afterValue The last primary key value already handled (NULL starts from the first row).
+     * @param consumer   The consumer receiving each row keyed by the structure columns.
+     * @throws StorageException When the rows can not be read.
+     */
+    public void load(@NotNull StorageData data, @Nullable Object afterValue, @NotNull Consumer<Map<String, Object>> consumer) throws StorageException {
+        stream(data, QueryTemplate.of(getType(), data).getOrderedSelectSQL(data.getPrimaryKey(), (afterValue != null)), afterValue, consumer);
+    }
+
+    private void stream(@NotNull StorageData data, @NotNull String sql, @Nullable Object afterValue,
+                        @NotNull Consumer<Map<String, Object>> consumer) throws StorageException {
+        final QueryTemplate template = QueryTemplate.of(getType(), data);
+        try (Connection connection = getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize((getType() == Type.MySQL && !useCursorFetch()) ? Integer.MIN_VALUE : getFetchSize());
+            if (afterValue != null) QueryTemplate.bind(statement, 1, afterValue);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) consumer.accept(template.read(resultSet));
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Unable to load the table \"" + data.getTable() + "\" (" + e.getMessage() + ").", e);
+        }
+    }
+
+    @Override
+    public @Nullable Map<String, Object> find(@NotNull StorageData data, @NotNull Object primaryValue) throws StorageException {
+        final QueryTemplate template = QueryTemplate.of(getType(), data);
+        try (Connection connection = getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(template.getFindSQL(data.getPrimaryKey()))) {
+            QueryTemplate.bind(statement, 1, primaryValue);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return (resultSet.next() ? template.read(resultSet) : null);
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Unable to read from the table \"" + data.getTable() + "\" (" + e.getMessage() + ").", e);
+        }
+    }
+
+    /**
+     * Writes all operations inside a single transaction, grouped by statement and sent in JDBC batches of {@link #getBatchSize()}.
+     * Partial saves run unbatched so their update counts are exact, only update their changed columns and fall back to a full
+     * upsert when the row no longer exists.
+     * The transaction is rolled back if any statement fails.
+     *
+     * @param operations The operations to write (At most one operation per row).
+     */
+    @Override
+    public void apply(@NotNull List<StorageOperation> operations) {
         try {
-            if (CONNECTION != null && !CONNECTION.isClosed()) {
-                CONNECTION.close();
-                CONNECTION = null;
+            commit(operations);
+        } catch (StorageException e) {e.printStackTrace();}
+    }
+
+    /**
+     * Writes the operations the same way as {@link #apply(List)}.
+     *
+     * @param operations The operations to write (At most one operation per row).
+     * @throws StorageException When a statement failed and the transaction was rolled back.
+     */
+    @Override
+    public void commit(@NotNull List<StorageOperation> operations) throws StorageException {
+        if (operations.isEmpty()) return;
+
+        final long timing = startTiming();
+        final Map<String, List<StorageOperation>> groups = new LinkedHashMap<>();
+        for (StorageOperation operation : operations) {
+            final QueryTemplate template = QueryTemplate.of(getType(), operation.getData());
+            final String sql;
+            if (operation.isDelete()) {
+                if (operation.getValue().length <= 0) continue;
+                sql = template.getDeleteSQL(operation.getPrimaryKey());
+            } else if (operation.isPartial()) {
+                final String[] updateColumns = template.getUpdateColumns(operation.getChangedKeys());
+                if (updateColumns.length <= 0) continue;
+                sql = template.getUpdateSQL(operation.getChangedKeys(), operation.getData().getPrimaryKey());
+            } else sql = template.getUpsertSQL(operation.getValueMap());
+
+            groups.computeIfAbsent(sql, key -> new ArrayList<>()).add(operation);
+        }
+
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                final List<StorageOperation> missed = new ArrayList<>();
+                for (Map.Entry<String, List<StorageOperation>> group : groups.entrySet())
+                    executeGroup(connection, group.getKey(), group.getValue(), missed);
+
+                if (!missed.isEmpty()) {
+                    final Map<String, List<StorageOperation>> upserts = new LinkedHashMap<>();
+                    for (StorageOperation operation : missed)
+                        upserts.computeIfAbsent(QueryTemplate.of(getType(), operation.getData()).getUpsertSQL(operation.getValueMap()), key -> new ArrayList<>())
+                                .add(StorageOperation.save(operation.getData(), operation.getValueMap()));
+
+                    for (Map.Entry<String, List<StorageOperation>> group : upserts.entrySet())
+                        executeGroup(connection, group.getKey(), group.getValue(), null);
+                }
+
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Unable to write " + operations.size() + " operations (" + e.getMessage() + ").", e);
+        }
+
+        recordBatch(operations, timing);
+    }
+
+    private void executeGroup(@NotNull Connection connection, @NotNull String sql, @NotNull List<StorageOperation> operations,
+                              @Nullable List<StorageOperation> missed) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            final List<StorageOperation> batch = new ArrayList<>(Math.min(operations.size(), getBatchSize()));
+            for (StorageOperation operation : operations) {
+                final QueryTemplate template = QueryTemplate.of(getType(), operation.getData());
+                if (operation.isDelete()) statement.setString(1, operation.getValue()[0]);
+                else if (operation.isPartial()) {
+                    template.bindUpdate(statement, template.getUpdateColumns(operation.getChangedKeys()),
+                            operation.getValueMap(), operation.getData().getPrimaryKey());
+
+                    // batched update counts are not reliable (SUCCESS_NO_INFO with rewritten batches), so partial
+                    // updates run one at a time to find the rows that do not exist
+                    if (statement.executeUpdate() <= 0 && missed != null) missed.add(operation);
+                    continue;
+                } else template.bindUpsert(statement, operation.getValueMap());
+
+                statement.addBatch();
+                batch.add(operation);
+                if (batch.size() >= getBatchSize()) executeBatch(statement, batch);
+            }
+
+            if (!batch.isEmpty()) executeBatch(statement, batch);
+        }
+    }
+
+    private void executeBatch(@NotNull PreparedStatement statement, @NotNull List<StorageOperation> batch) throws SQLException {
+        statement.executeBatch();
+        batch.clear();
+    }
+
+    /**
+     * Borrows a connection used for writing (SQLite only ever hands out a single writer at a time).
+     * The connection must be closed to return it to the pool.
+     *
+     * @return The pooled connection.
+     * @throws SQLException When the storage is not registered or no connection became available in time.
+     */
+    public Connection getConnection() throws SQLException {
+        if (pool == null) throw new SQLException("The storage has not been registered.");
+        return pool.getConnection();
+    }
+
+    /**
+     * Borrows a connection used for reading (SQLite readers run alongside the writer).
+     * The connection must be closed to return it to the pool.
+     *
+     * @return The pooled connection.
+     * @throws SQLException When the storage is not registered or no connection became available in time.
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (readPool == null) return getConnection();
+        return readPool.getConnection();
+    }
+
+    private Connection createLegacyConnection() {
+        final InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "isClosed":
+                    return !isReady();
+                case "equals":
+                    return (proxy == args[0]);
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return ("Legacy" + getType().name() + "Connection");
+                case "setAutoCommit":
+                case "commit":
+                case "rollback":
+                case "setSavepoint":
+                case "releaseSavepoint":
+                    throw new SQLFeatureNotSupportedException("Transactions are not supported through CONNECTION, borrow one with getConnection().");
+                default:
+                    break;
+            }
+
+            final Connection connection = getConnection();
+            boolean leased = false;
+            try {
+                final Object result = method.invoke(connection, args);
+                if (!(result instanceof Statement)) return result;
+
+                leased = true; // the statement keeps the connection until it is closed
+                return wrapLegacyStatement((Statement) result, method.getReturnType(), connection);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (!leased) connection.close();
             }
+        };
+
+        return (Connection) Proxy.newProxyInstance(SQLStorage.class.getClassLoader(), new Class[]{Connection.class}, handler);
+    }
+
+    private Statement wrapLegacyStatement(@NotNull Statement statement, @NotNull Class<?> type, @NotNull Connection connection) {
+        final InvocationHandler handler = new InvocationHandler() {
+            private boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close": {
+                        if (!closed) {
+                            closed = true;
+                            try {
+                                statement.close();
+                            } finally {
+                                connection.close();
+                            }
+                        }
+                        return null;
+                    }
+                    case "getConnection":
+                        return CONNECTION;
+                    case "equals":
+                        return (proxy == args[0]);
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {throw e.getCause();}
+            }
+        };
+
+        return (Statement) Proxy.newProxyInstance(SQLStorage.class.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    @Override
+    public void register() {
+        final long timing = startTiming();
+        try {
+            close();
 
             switch (getType()) {
                 case MySQL: {
@@ -84,43 +432,203 @@ public class SQLStorage extends Storage {
                         Class.forName("com.mysql.cj.jdbc.Driver");
                     } catch (NoClassDefFoundError | ClassNotFoundException ignored) {Class.forName("com.mysql.jdbc.Driver");}
 
-                    CONNECTION = DriverManager.getConnection("jdbc:mysql://" + getHost() + "/" + getDatabase()
-                            + "?" + (useSSL() ? "verifyServerCertificate=false&useSSL=true&requireSSL=true" : "useSSL=false")
-                            + "&autoReconnect=true&useUnicode=yes", getUsername(), getPassword());
+                    pool = createPool("jdbc:mysql://" + getHost() + "/" + getDatabase() + "?"
+                            + (useSSL() ? "verifyServerCertificate=false&useSSL=true&requireSSL=true" : "useSSL=false")
+                            + "&useUnicode=yes&rewriteBatchedStatements=true&useServerPrepStmts=true"
+                            + (useCursorFetch() ? "&useCursorFetch=true" : ""), getMinimumPoolSize(), getMaximumPoolSize());
                     break;
                 }
 
                 case MariaDB: {
                     Class.forName("org.mariadb.jdbc.Driver");
-                    CONNECTION = DriverManager.getConnection("jdbc:mariadb://" + getHost() + "/" + getDatabase()
-                            + "?" + (useSSL() ? "verifyServerCertificate=false&useSSL=true&requireSSL=true" : "useSSL=false")
-                            + "&autoReconnect=true&useUnicode=yes", getUsername(), getPassword());
+                    pool = createPool("jdbc:mariadb://" + getHost() + "/" + getDatabase() + "?"
+                            + (useSSL() ? "verifyServerCertificate=false&useSSL=true&requireSSL=true" : "useSSL=false")
+                            + "&useUnicode=yes&rewriteBatchedStatements=true&useServerPrepStmts=true",
+                            getMinimumPoolSize(), getMaximumPoolSize());
                     break;
                 }
 
                 default: { // defaults to SQLite
                     Class.forName("org.sqlite.JDBC");
-                    CONNECTION = DriverManager.getConnection("jdbc:sqlite:" + getFilePath());
+                    pool = createPool("jdbc:sqlite:" + getFilePath(), 1, 1);
+                    pool.setInitializer(connection -> initializeSQLite(connection, true));
+
+                    if (useIntegrityCheck()) {
+                        try (Connection connection = getConnection(); Statement statement = connection.createStatement();
+                             ResultSet resultSet = statement.executeQuery("PRAGMA integrity_check;")) {
+                            if (resultSet.next() && !"ok".equalsIgnoreCase(resultSet.getString(1)))
+                                INSTANCE.getLogger().warning("The SQLite integrity check failed for \"" + getFilePath() + "\" ("
+                                        + resultSet.getString(1) + ").");
+                        }
+                    }
+
+                    readPool = createPool("jdbc:sqlite:" + getFilePath(), 1, getReaderPoolSize());
+                    readPool.setInitializer(connection -> initializeSQLite(connection, false));
                     break;
                 }
             }
 
-            final Statement integrityCheck = CONNECTION.createStatement();
-            integrityCheck.executeUpdate("PRAGMA integrity_check;");
-            integrityCheck.close();
+            pool.start();
+            if (readPool != null) readPool.start();
         } catch (NoClassDefFoundError | ClassNotFoundException | SQLException e) {e.printStackTrace();}
+        recordTiming("*", StorageMetrics.Operation.REGISTER, timing, 0);
     }
 
+    private ConnectionPool createPool(@NotNull String url, int minimumSize, int maximumSize) {
+        final boolean fileBased = (getType() != Type.MySQL && getType() != Type.MariaDB);
+        final ConnectionPool connectionPool = new ConnectionPool(url, (fileBased ? null : getUsername()),
+                (fileBased ? null : getPassword()), minimumSize, maximumSize, INSTANCE.getLogger());
+        connectionPool.setConnectionTimeout(getConnectionTimeout());
+        connectionPool.setIdleTimeout(getIdleTimeout());
+        connectionPool.setLeakThreshold(getLeakThreshold());
+        connectionPool.setStatementCacheSize(getStatementCacheSize());
+        return connectionPool;
+    }
+
+    /**
+     * Applies the configured pragmas to a new SQLite connection. The journal mode is stored in the database file, so only
+     * the writer sets it; readers also keep query_only so they can never write.
+     */
+    private void initializeSQLite(@NotNull Connection connection, boolean writer) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout = " + getConnectionTimeout() + ";");
+            if (writer && getJournalMode() != null) statement.execute("PRAGMA journal_mode = " + getJournalMode().name() + ";");
+            if (getSynchronous() != null) statement.execute("PRAGMA synchronous = " + getSynchronous().name() + ";");
+            if (getCacheSize() != 0) statement.execute("PRAGMA cache_size = " + getCacheSize() + ";");
+            if (!writer) statement.execute("PRAGMA query_only = true;");
+        }
+    }
+
+    /**
+     * @return The base gauges followed by the usage of the writer and reader pools.
+     */
     @Override
-    public boolean isReady() {
-        try {
-            return (CONNECTION != null && !CONNECTION.isClosed());
-        } catch (SQLException e) {e.printStackTrace();}
-        return false;
+    public Map<String, Object> getGauges() {
+        final Map<String, Object> gauges = super.getGauges();
+        final ConnectionPool writerPool = pool, readerPool = readPool;
+        if (writerPool != null) gauges.put("pool", (writerPool.getActiveCount() + " active, " + writerPool.getIdleCount()
+                + " idle, " + writerPool.getTotalCount() + " total"));
+        if (readerPool != null) gauges.put("read-pool", (readerPool.getActiveCount() + " active, " + readerPool.getIdleCount()
+                + " idle, " + readerPool.getTotalCount() + " total"));
+        return gauges;
+    }
+
+    @Override
+    public boolean isReady() {return (pool != null && !pool.isClosed());}
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+
+        if (readPool != null) {
+            readPool.close();
+            readPool = null;
+        }
     }
 
     // TAG getters & setters
 
+    public ConnectionPool getPool() {return pool;}
+
+    public ConnectionPool getReadPool() {return readPool;}
+
+    public int getMinimumPoolSize() {return minimumPoolSize;}
+
+    public int getMaximumPoolSize() {return maximumPoolSize;}
+
+    /**
+     * Sets the MySQL/MariaDB pool bounds (Applied on the next register).
+     *
+     * @param minimumPoolSize The amount of connections kept open.
+     * @param maximumPoolSize The maximum amount of connections open at once.
+     */
+    public void setPoolSize(int minimumPoolSize, int maximumPoolSize) {
+        this.minimumPoolSize = minimumPoolSize;
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getReaderPoolSize() {return readerPoolSize;}
+
+    /**
+     * @param readerPoolSize The maximum amount of concurrent SQLite readers (Applied on the next register).
+     */
+    public void setReaderPoolSize(int readerPoolSize) {this.readerPoolSize = readerPoolSize;}
+
+    public int getBatchSize() {return batchSize;}
+
+    /**
+     * @param batchSize The amount of rows sent per JDBC batch by {@link #apply(List)}.
+     */
+    public void setBatchSize(int batchSize) {this.batchSize = Math.max(1, batchSize);}
+
+    public int getFetchSize() {return fetchSize;}
+
+    /**
+     * @param fetchSize The amount of rows fetched per round-trip when loading.
+     */
+    public void setFetchSize(int fetchSize) {this.fetchSize = Math.max(1, fetchSize);}
+
+    public boolean useCursorFetch() {return cursorFetch;}
+
+    /**
+     * @param cursorFetch Whether MySQL loads use a server-side cursor in chunks of the fetch size instead of streaming row by row
+     *                    (Applied on the next register, MariaDB always fetches in chunks of the fetch size).
+     */
+    public void setCursorFetch(boolean cursorFetch) {this.cursorFetch = cursorFetch;}
+
+    public int getStatementCacheSize() {return statementCacheSize;}
+
+    /**
+     * @param statementCacheSize The amount of prepared statements kept open per connection (0 disables the cache).
+     */
+    public void setStatementCacheSize(int statementCacheSize) {this.statementCacheSize = statementCacheSize;}
+
+    public JournalMode getJournalMode() {return journalMode;}
+
+    /**
+     * @param journalMode The SQLite journal mode (NULL keeps the driver default, applied on the next register).
+     */
+    public void setJournalMode(@Nullable JournalMode journalMode) {this.journalMode = journalMode;}
+
+    public Synchronous getSynchronous() {return synchronous;}
+
+    /**
+     * @param synchronous The SQLite synchronous level (NULL keeps the driver default, applied on the next register).
+     */
+    public void setSynchronous(@Nullable Synchronous synchronous) {this.synchronous = synchronous;}
+
+    public int getCacheSize() {return cacheSize;}
+
+    /**
+     * @param cacheSize The SQLite page cache size in pages, or in KiB when negative (0 keeps the driver default).
+     */
+    public void setCacheSize(int cacheSize) {this.cacheSize = cacheSize;}
+
+    public boolean useIntegrityCheck() {return integrityCheck;}
+
+    /**
+     * @param integrityCheck Whether SQLite runs a full integrity check on register (Reads the entire database file).
+     */
+    public void setIntegrityCheck(boolean integrityCheck) {this.integrityCheck = integrityCheck;}
+
+    public long getConnectionTimeout() {return connectionTimeout;}
+
+    public void setConnectionTimeout(long connectionTimeout) {this.connectionTimeout = connectionTimeout;}
+
+    public long getIdleTimeout() {return idleTimeout;}
+
+    public void setIdleTimeout(long idleTimeout) {this.idleTimeout = idleTimeout;}
+
+    public long getLeakThreshold() {return leakThreshold;}
+
+    /**
+     * @param leakThreshold The milliseconds a connection can be borrowed before it is reported as leaked (0 disables detection).
+     */
+    public void setLeakThreshold(long leakThreshold) {this.leakThreshold = leakThreshold;}
+
     public String getFilePath() {return filePath;}
 
     public void setFilePath(String filePath) {this.filePath = filePath;}
@@ -145,4 +653,8 @@ public class SQLStorage extends Storage {
 
     public boolean useSSL() {return useSSL;}
 
-}
\ No newline at end of file
+    public enum JournalMode {DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF}
+
+    public enum Synchronous {OFF, NORMAL, FULL, EXTRA}
+
+}
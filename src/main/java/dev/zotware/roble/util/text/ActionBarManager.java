@@ -0,0 +1,169 @@
+package dev.zotware.roble.util.text;
+
+import dev.zotware.roble.RoblePlugin;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ActionBarManager {
+
+    private static final BaseComponent[] EMPTY = new BaseComponent[]{new TextComponent("")};
+
+    private final RoblePlugin INSTANCE;
+    private final Map<UUID, PlayerBars> players;
+    private final AtomicLong sequence;
+    private volatile long currentTick;
+    private int refreshInterval;
+
+    /**
+     * Creates the service that shows timed action bars for every player from a single task ticking once per server tick.
+     * Each player has a queue of bars ordered by priority (Newest first on ties), only the head is visible and it is only
+     * sent again when the visible text changes or the client would otherwise let it fade.
+     *
+     * @param instance The plugin instance.
+     */
+    public ActionBarManager(@NotNull RoblePlugin instance) {
+        this.INSTANCE = instance;
+        this.players = new ConcurrentHashMap<>();
+        this.sequence = new AtomicLong();
+        setRefreshInterval(40);
+        INSTANCE.getServer().getScheduler().runTaskTimer(INSTANCE, this::tick, 1, 1);
+    }
+
+    /**
+     * Queues a timed action bar for the player.
+     *
+     * @param player   The player.
+     * @param text     The colored text.
+     * @param ticks    The ticks the bar stays in the queue.
+     * @param priority The priority (Higher is shown over lower).
+     */
+    public void show(@NotNull Player player, @NotNull String text, long ticks, int priority) {
+        final Bar bar = new Bar(text, TextComponent.fromLegacyText(text), (currentTick + Math.max(1, ticks)), priority, sequence.getAndIncrement());
+        players.compute(player.getUniqueId(), (uuid, bars) -> {
+            if (bars == null) bars = new PlayerBars(player);
+            synchronized (bars) {
+                bars.queue.add(bar);
+            }
+
+            return bars;
+        });
+    }
+
+    /**
+     * Removes every queued bar of the player and clears the visible one.
+     *
+     * @param player The player.
+     */
+    public void clear(@NotNull Player player) {
+        final PlayerBars bars = players.get(player.getUniqueId());
+        if (bars == null) return;
+
+        synchronized (bars) {
+            bars.queue.clear();
+        }
+    }
+
+    /**
+     * Forgets the player without sending anything (e.g. when they quit).
+     *
+     * @param playerUniqueId The player's unique id.
+     */
+    public void remove(@NotNull UUID playerUniqueId) {players.remove(playerUniqueId);}
+
+    private void tick() {
+        final long tick = ++currentTick;
+        final Iterator<PlayerBars> iterator = players.values().iterator();
+        while (iterator.hasNext()) {
+            final PlayerBars bars = iterator.next();
+            if (!bars.player.isOnline()) {
+                iterator.remove();
+                continue;
+            }
+
+            final Bar head;
+            synchronized (bars) {
+                bars.queue.removeIf(bar -> bar.expiresAt <= tick);
+                head = bars.queue.peek();
+            }
+
+            if (head == null) {
+                if (bars.visible != null) bars.player.spigot().sendMessage(ChatMessageType.ACTION_BAR, EMPTY);
+                bars.visible = null;
+                players.computeIfPresent(bars.player.getUniqueId(), (uuid, current) -> {
+                    synchronized (current) {
+                        return (current.queue.isEmpty() ? null : current); // a bar may have been queued meanwhile
+                    }
+                });
+                continue;
+            }
+
+            if (bars.visible == null || !bars.visible.equals(head.text) || (tick - bars.sentAt) >= refreshInterval) {
+                bars.player.spigot().sendMessage(ChatMessageType.ACTION_BAR, head.components);
+                bars.visible = head.text;
+                bars.sentAt = tick;
+            }
+        }
+    }
+
+    // TAG getters & setters
+
+    /**
+     * @param player The player.
+     * @return The text the player currently sees (NULL if none).
+     */
+    public @Nullable String getVisible(@NotNull Player player) {
+        final PlayerBars bars = players.get(player.getUniqueId());
+        return ((bars != null) ? bars.visible : null);
+    }
+
+    public int getRefreshInterval() {return refreshInterval;}
+
+    /**
+     * @param refreshInterval The ticks after which an unchanged bar is sent again so it does not fade.
+     */
+    public void setRefreshInterval(int refreshInterval) {this.refreshInterval = Math.max(1, refreshInterval);}
+
+    private static class PlayerBars {
+
+        private final Player player;
+        private final PriorityQueue<Bar> queue;
+        private String visible;
+        private long sentAt;
+
+        private PlayerBars(@NotNull Player player) {
+            this.player = player;
+            this.queue = new PriorityQueue<>((first, second) -> (first.priority != second.priority)
+                    ? Integer.compare(second.priority, first.priority) : Long.compare(second.sequence, first.sequence));
+        }
+
+    }
+
+    private static class Bar {
+
+        private final String text;
+        private final BaseComponent[] components;
+        private final long expiresAt, sequence;
+        private final int priority;
+
+        private Bar(@NotNull String text, @NotNull BaseComponent[] components, long expiresAt, int priority, long sequence) {
+            this.text = text;
+            this.components = components;
+            this.expiresAt = expiresAt;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+    }
+
+}
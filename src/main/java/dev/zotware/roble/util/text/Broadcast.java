@@ -0,0 +1,208 @@
+package dev.zotware.roble.util.text;
+
+import dev.zotware.roble.RoblePlugin;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+
+public class Broadcast {
+
+    private final RoblePlugin INSTANCE;
+    private final String message;
+    private final Map<String, Function<Player, ?>> playerPlaceholders;
+    private ChatMessageType type;
+    private Segment[] segments;
+    private BaseComponent[] sharedComponents;
+
+    /**
+     * Creates a message sent to many players at once. Everything that does not depend on the recipient (The shared placeholders,
+     * coloring and, when nothing else is left, the components) is rendered a single time. Only "%placeholder%" tokens and the
+     * placeholders added through {@link #placeholder(String, Function)} are rendered per recipient ("%placeholder%" tokens are
+     * read like {@link PlaceholderResolver} reads them).
+     * A "{bar}" prefix sends the message to the action bar.
+     *
+     * @param instance     The plugin instance.
+     * @param message      The message.
+     * @param placeholders The shared placeholders in the format <placeholder>:<value>.
+     */
+    public Broadcast(@NotNull RoblePlugin instance, @NotNull String message, @Nullable String... placeholders) {
+        this.INSTANCE = instance;
+        this.playerPlaceholders = new LinkedHashMap<>();
+
+        if (message.toLowerCase().startsWith("{bar}")) {
+            message = message.substring(5);
+            setType(ChatMessageType.ACTION_BAR);
+        } else setType(ChatMessageType.CHAT);
+
+        this.message = ((placeholders != null && placeholders.length > 0) ? MessageTemplate.apply(message, placeholders) : message);
+    }
+
+    /**
+     * Adds a placeholder whose value depends on the recipient (Matched case-insensitively like the shared ones).
+     *
+     * @param key   The placeholder (e.g. "{player}").
+     * @param value The function returning the recipient's value.
+     * @return The broadcast.
+     */
+    public synchronized Broadcast placeholder(@NotNull String key, @NotNull Function<Player, ?> value) {
+        playerPlaceholders.put(key, value);
+        segments = null;
+        sharedComponents = null;
+        return this;
+    }
+
+    /**
+     * Sends the message to every recipient on the current tick.
+     *
+     * @param recipients The players to send to.
+     */
+    public void send(@NotNull Collection<? extends Player> recipients) {
+        compile();
+        for (Player player : recipients) send(player);
+    }
+
+    /**
+     * Sends the message to a limited amount of recipients per tick, spreading large audiences over several ticks.
+     *
+     * @param recipients The players to send to.
+     * @param perTick    The amount of players sent to per tick.
+     * @return The sending task (NULL if everything was sent right away).
+     */
+    public @Nullable BukkitTask send(@NotNull Collection<? extends Player> recipients, int perTick) {
+        if (perTick <= 0 || recipients.size() <= perTick) {
+            send(recipients);
+            return null;
+        }
+
+        compile();
+        final Iterator<Player> iterator = new ArrayList<Player>(recipients).iterator();
+        final BukkitTask[] task = new BukkitTask[1];
+        task[0] = INSTANCE.getServer().getScheduler().runTaskTimer(INSTANCE, () -> {
+            for (int i = -1; ++i < perTick && iterator.hasNext(); ) send(iterator.next());
+            if (!iterator.hasNext() && task[0] != null) task[0].cancel();
+        }, 0, 1);
+        return task[0];
+    }
+
+    /**
+     * @param player The player to send to.
+     */
+    public void send(@NotNull Player player) {
+        if (!player.isOnline()) return;
+
+        compile();
+        if (segments.length == 0) return;
+        if (sharedComponents != null) {
+            player.spigot().sendMessage(type, sharedComponents);
+            return;
+        }
+
+        final String rendered = render(player);
+        if (type == ChatMessageType.CHAT) player.sendMessage(rendered);
+        else player.spigot().sendMessage(type, TextComponent.fromLegacyText(rendered));
+    }
+
+    /**
+     * @param player The recipient.
+     * @return The colored message as the recipient sees it.
+     */
+    public String render(@NotNull Player player) {
+        compile();
+
+        final StringBuilder builder = new StringBuilder(message.length() + 32);
+        for (Segment segment : segments) {
+            if (segment.text != null) {
+                builder.append(segment.text);
+                continue;
+            }
+
+            final String value;
+            if (segment.placeholder != null) {
+                final Object result = playerPlaceholders.get(segment.placeholder).apply(player);
+                value = ((result != null) ? result.toString() : "");
+            } else value = INSTANCE.getPlaceholderResolver().resolveToken(player, segment.token);
+
+            builder.append(INSTANCE.color(value));
+        }
+
+        return builder.toString();
+    }
+
+    private synchronized void compile() {
+        if (segments != null) return;
+
+        final String[] keys = playerPlaceholders.keySet().toArray(new String[0]);
+        final boolean papi = (INSTANCE.getPlaceholderResolver() != null);
+        final List<Segment> segmentList = new ArrayList<>();
+        int literalStart = 0, position = 0, tokenFrom = 0;
+        while (position < message.length()) {
+            int end = -1;
+            String placeholder = null;
+            for (String key : keys)
+                if (!key.isEmpty() && (placeholder == null || key.length() > placeholder.length())
+                        && message.regionMatches(true, position, key, 0, key.length())) placeholder = key;
+
+            if (placeholder != null) end = (position + placeholder.length());
+            else if (papi && position >= tokenFrom && message.charAt(position) == '%') {
+                final int scanned = PlaceholderResolver.scan(message, position);
+                if (scanned == PlaceholderResolver.AMBIGUOUS) end = (message.indexOf('%', (position + 1)) + 1);
+                else if (scanned > 0) end = scanned;
+                else tokenFrom = -scanned; // no token starts inside the literal part, placeholders are still matched there
+            }
+
+            if (end < 0) {
+                position++;
+                continue;
+            }
+
+            if (position > literalStart) segmentList.add(new Segment(INSTANCE.color(message.substring(literalStart, position)), null, null));
+            segmentList.add(new Segment(null, placeholder, ((placeholder == null) ? message.substring(position, end) : null)));
+            literalStart = position = end;
+        }
+
+        if (literalStart < message.length()) segmentList.add(new Segment(INSTANCE.color(message.substring(literalStart)), null, null));
+
+        final Segment[] compiled = segmentList.toArray(new Segment[0]);
+        sharedComponents = ((compiled.length == 1 && compiled[0].text != null) ? TextComponent.fromLegacyText(compiled[0].text) : null);
+        segments = compiled;
+    }
+
+    // TAG getters & setters
+
+    public String getMessage() {return message;}
+
+    public ChatMessageType getType() {return type;}
+
+    /**
+     * @param type Where the message is shown (Chat or action bar).
+     */
+    public void setType(@NotNull ChatMessageType type) {this.type = type;}
+
+    /**
+     * @return Whether the message is the same for every recipient (Its components are then built a single time).
+     */
+    public boolean isShared() {
+        compile();
+        return (sharedComponents != null);
+    }
+
+    private static class Segment {
+
+        private final String text, placeholder, token; // exactly one is set
+
+        private Segment(@Nullable String text, @Nullable String placeholder, @Nullable String token) {
+            this.text = text;
+            this.placeholder = placeholder;
+            this.token = token;
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package dev.zotware.roble.util.text;
+
+import dev.zotware.roble.util.LRUCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class ColorTranslator {
+
+    public static final char COLOR_CHAR = '\u00A7';
+    private static final String CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+
+    private final LRUCache<String, String> cache;
+    private final boolean hex;
+    private int cacheableLength;
+
+    /**
+     * Creates a translator that converts "#RRGGBB" and "&" color codes in a single scan.
+     * Short texts (Menu titles, lore, configured messages) are cached after their first translation, evicting the least
+     * recently used ones once the cache is full.
+     *
+     * @param hex Whether "#RRGGBB" codes are translated (1.16+).
+     */
+    public ColorTranslator(boolean hex) {
+        this.hex = hex;
+        this.cache = new LRUCache<>(0);
+        setCacheLimit(2048);
+        setCacheableLength(256);
+    }
+
+    /**
+     * @param text The text to translate.
+     * @return The colored text.
+     */
+    public String translate(@Nullable String text) {
+        if (text == null || text.isEmpty()) return text;
+
+        final boolean cacheable = (text.length() <= cacheableLength && cache.getMaximumSize() > 0);
+        if (cacheable) {
+            final String cached = cache.get(text);
+            if (cached != null) return cached;
+        }
+
+        final String translated = translateUncached(text);
+        if (cacheable) cache.put(text, translated);
+
+        return translated;
+    }
+
+    /**
+     * Translates the text without touching the cache (For one-off texts such as those with player names in them).
+     *
+     * @param text The text to translate.
+     * @return The colored text.
+     */
+    public String translateUncached(@NotNull String text) {
+        final int length = text.length();
+        int i = 0;
+        while (i < length && !isCodeAt(text, i)) i++;
+        if (i >= length) return text;
+
+        final StringBuilder builder = new StringBuilder(length + 16).append(text, 0, i);
+        while (i < length) {
+            final char c = text.charAt(i);
+            if (c == '&' && (i + 1) < length && CODES.indexOf(text.charAt(i + 1)) >= 0) {
+                builder.append(COLOR_CHAR).append(Character.toLowerCase(text.charAt(i + 1)));
+                i += 2;
+            } else if (c == '#' && isHexAt(text, i)) {
+                builder.append(COLOR_CHAR).append('x');
+                for (int j = i; ++j <= (i + 6); ) builder.append(COLOR_CHAR).append(text.charAt(j));
+                i += 7;
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Clears every cached translation.
+     */
+    public void clearCache() {cache.clear();}
+
+    private boolean isCodeAt(@NotNull String text, int index) {
+        final char c = text.charAt(index);
+        if (c == '&') return ((index + 1) < text.length() && CODES.indexOf(text.charAt(index + 1)) >= 0);
+        return (c == '#' && isHexAt(text, index));
+    }
+
+    private boolean isHexAt(@NotNull String text, int index) {
+        if (!hex || (index + 7) > text.length()) return false;
+
+        for (int i = index; ++i <= (index + 6); ) if (Character.digit(text.charAt(i), 16) < 0) return false;
+        return true;
+    }
+
+    // TAG getters & setters
+
+    public boolean isHex() {return hex;}
+
+    public int getCacheSize() {return cache.size();}
+
+    public int getCacheLimit() {return cache.getMaximumSize();}
+
+    /**
+     * @param cacheLimit The amount of translations kept before the least recently used is evicted (0 disables caching).
+     */
+    public void setCacheLimit(int cacheLimit) {cache.setMaximumSize(Math.max(0, cacheLimit));}
+
+    public int getCacheableLength() {return cacheableLength;}
+
+    /**
+     * @param cacheableLength The length up to which texts are cached.
+     */
+    public void setCacheableLength(int cacheableLength) {this.cacheableLength = Math.max(0, cacheableLength);}
+
+}
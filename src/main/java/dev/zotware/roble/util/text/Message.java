@@ -0,0 +1,195 @@
+package dev.zotware.roble.util.text;
+
+import dev.zotware.roble.RoblePlugin;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class Message {
+
+    private final RoblePlugin INSTANCE;
+    private final String key, raw;
+    private final ChatMessageType type;
+    private final int barSeconds;
+    private final String[] literals, rawLiterals, slots; // literals[i] comes before slots[i], the last one trails
+    private final boolean[] papiLiterals;
+    private final BaseComponent[] components;
+
+    /**
+     * Compiles a catalog entry once: the {bar}/{bar:seconds} prefix picks the route, the "{name}" slots are located and every
+     * literal part around them is colored. Entries without slots or "%placeholder%" tokens also get their components built up front.
+     *
+     * @param instance The plugin instance.
+     * @param key      The message key.
+     * @param raw      The raw message text.
+     */
+    public Message(@NotNull RoblePlugin instance, @NotNull String key, @NotNull String raw) {
+        this.INSTANCE = instance;
+        this.key = key;
+        this.raw = raw;
+
+        String text = raw;
+        int seconds = 0;
+        ChatMessageType route = ChatMessageType.CHAT;
+        if (text.regionMatches(true, 0, "{bar", 0, 4)) {
+            final int end = text.indexOf('}');
+            final String duration = ((end > 5 && text.charAt(4) == ':') ? text.substring(5, end).trim() : "");
+            if (end == 4 || (!duration.isEmpty() && duration.chars().allMatch(Character::isDigit))) {
+                route = ChatMessageType.ACTION_BAR;
+                seconds = (duration.isEmpty() ? 0 : Integer.parseInt(duration));
+                text = text.substring(end + 1);
+            }
+        }
+
+        this.type = route;
+        this.barSeconds = seconds;
+
+        final List<String> literalList = new ArrayList<>(), slotList = new ArrayList<>();
+        int literalStart = 0, searchFrom = 0, start;
+        while ((start = text.indexOf('{', searchFrom)) >= 0) {
+            final int end = text.indexOf('}', (start + 1));
+            if (end < 0) break;
+
+            final int nested = text.indexOf('{', (start + 1));
+            if (end == (start + 1) || (nested >= 0 && nested < end)) { // "{}" and "{{" are not slots
+                searchFrom = (start + 1);
+                continue;
+            }
+
+            literalList.add(text.substring(literalStart, start));
+            slotList.add(text.substring(start, (end + 1)).toLowerCase());
+            literalStart = searchFrom = (end + 1);
+        }
+
+        literalList.add(text.substring(literalStart));
+        this.rawLiterals = literalList.toArray(new String[0]);
+        this.slots = slotList.toArray(new String[0]);
+        this.literals = new String[rawLiterals.length];
+        this.papiLiterals = new boolean[rawLiterals.length];
+
+        boolean papi = false;
+        for (int i = -1; ++i < rawLiterals.length; ) {
+            literals[i] = INSTANCE.getColorTranslator().translateUncached(rawLiterals[i]);
+            papi |= (papiLiterals[i] = (rawLiterals[i].indexOf('%') >= 0));
+        }
+
+        this.components = ((slots.length == 0 && !papi) ? TextComponent.fromLegacyText(literals[0]) : null);
+    }
+
+    /**
+     * @param player       The player to resolve "%placeholder%" tokens for (NULL leaves them as they are).
+     * @param placeholders The placeholders in the format <placeholder>:<value> (e.g. "{player}:Notch", matched case-insensitively).
+     * @return The colored message.
+     */
+    public String render(@Nullable Player player, @Nullable String... placeholders) {
+        if (components != null) return literals[0];
+
+        final StringBuilder builder = new StringBuilder(raw.length() + 32);
+        for (int i = -1; ++i < slots.length; ) {
+            appendLiteral(builder, player, i);
+
+            final String value = find(slots[i], placeholders);
+            builder.append((value != null) ? INSTANCE.color(value) : slots[i]);
+        }
+
+        appendLiteral(builder, player, slots.length);
+        return builder.toString();
+    }
+
+    /**
+     * @param player The player to resolve "%placeholder%" tokens for (NULL leaves them as they are).
+     * @param values The values keyed by slot (e.g. "{player}", matched case-insensitively).
+     * @return The colored message.
+     */
+    public String render(@Nullable Player player, @NotNull Map<String, ?> values) {
+        if (components != null) return literals[0];
+
+        final StringBuilder builder = new StringBuilder(raw.length() + 32);
+        for (int i = -1; ++i < slots.length; ) {
+            appendLiteral(builder, player, i);
+
+            Object value = values.get(slots[i]);
+            if (value == null)
+                for (Map.Entry<String, ?> entry : values.entrySet())
+                    if (entry.getKey().equalsIgnoreCase(slots[i])) {
+                        value = entry.getValue();
+                        break;
+                    }
+
+            builder.append((value != null) ? INSTANCE.color(value.toString()) : slots[i]);
+        }
+
+        appendLiteral(builder, player, slots.length);
+        return builder.toString();
+    }
+
+    /**
+     * Sends the message along its route (Action bar entries only reach players, others receive them in chat).
+     *
+     * @param recipient    The player/command-sender to send to.
+     * @param placeholders The placeholders in the format <placeholder>:<value>.
+     */
+    public void send(@NotNull CommandSender recipient, @Nullable String... placeholders) {
+        if (raw.isEmpty()) return;
+
+        final Player player = ((recipient instanceof Player) ? (Player) recipient : null);
+        if (player != null && !player.isOnline()) return;
+
+        if (player == null || type == ChatMessageType.CHAT) {
+            if (components != null) recipient.spigot().sendMessage(components);
+            else recipient.sendMessage(render(player, placeholders));
+            return;
+        }
+
+        if (barSeconds > 0) INSTANCE.getActionBarManager().show(player, render(player, placeholders), (barSeconds * 20L), 0);
+        else player.spigot().sendMessage(ChatMessageType.ACTION_BAR, (components != null) ? components
+                : TextComponent.fromLegacyText(render(player, placeholders)));
+    }
+
+    private void appendLiteral(@NotNull StringBuilder builder, @Nullable Player player, int index) {
+        if (player != null && papiLiterals[index] && INSTANCE.getPlaceholderResolver() != null)
+            builder.append(INSTANCE.color(INSTANCE.getPlaceholderResolver().resolve(player, rawLiterals[index])));
+        else builder.append(literals[index]);
+    }
+
+    private static @Nullable String find(@NotNull String slot, @Nullable String[] placeholders) {
+        if (placeholders == null) return null;
+
+        for (String placeholder : placeholders) {
+            if (placeholder == null) continue;
+
+            final int split = placeholder.indexOf(':');
+            if (split == slot.length() && placeholder.regionMatches(true, 0, slot, 0, split))
+                return placeholder.substring(split + 1);
+        }
+
+        return null;
+    }
+
+    // TAG getters & setters
+
+    public String getKey() {return key;}
+
+    public String getRaw() {return raw;}
+
+    public ChatMessageType getType() {return type;}
+
+    /**
+     * @return The seconds the action bar stays (0 when it is sent once or goes to chat).
+     */
+    public int getBarSeconds() {return barSeconds;}
+
+    /**
+     * @return The slots found in the message (Lowercase, including the braces).
+     */
+    public String[] getSlots() {return slots.clone();}
+
+}
@@ -0,0 +1,167 @@
+package dev.zotware.roble.util.text;
+
+import dev.zotware.roble.RoblePlugin;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+public class MessageCatalog {
+
+    private final RoblePlugin INSTANCE;
+    private final File folder;
+    private final String defaultLocale;
+    private final Map<String, Long> modified; // file name -> last modified, only touched while reloading
+    private volatile Map<String, Map<String, Message>> locales; // replaced as a whole, never modified
+    private BukkitTask reloadTask;
+
+    /**
+     * Creates a catalog from every "<locale>.yml" file in the folder (e.g. "messages/en_us.yml"). Every string or string list
+     * is compiled into a {@link Message} once, and lookups are plain map reads.
+     *
+     * @param instance      The plugin instance.
+     * @param folder        The folder holding the locale files.
+     * @param defaultLocale The locale used when a player's locale has no file or lacks the key (e.g. "en_us").
+     */
+    public MessageCatalog(@NotNull RoblePlugin instance, @NotNull File folder, @NotNull String defaultLocale) {
+        this.INSTANCE = instance;
+        this.folder = folder;
+        this.defaultLocale = normalize(defaultLocale);
+        this.modified = new HashMap<>();
+        this.locales = Collections.emptyMap();
+        reload();
+    }
+
+    private static String normalize(@NotNull String locale) {return locale.toLowerCase().replace('-', '_');}
+
+    /**
+     * Compiles every locale file that changed since the last reload and swaps them in at once
+     * (A file that fails to parse keeps its previous messages).
+     *
+     * @return Whether anything changed.
+     */
+    public synchronized boolean reload() {
+        final File[] files = folder.listFiles((directory, name) -> name.toLowerCase().endsWith(".yml"));
+        final Map<String, Map<String, Message>> updated = new HashMap<>(locales);
+        final Set<String> present = new HashSet<>();
+        boolean changed = false;
+
+        if (files != null)
+            for (File file : files) {
+                final String locale = normalize(file.getName().substring(0, (file.getName().length() - 4)));
+                present.add(locale);
+
+                final Long previous = modified.get(locale);
+                if (previous != null && previous == file.lastModified()) continue;
+
+                final YamlConfiguration yaml = new YamlConfiguration();
+                try {
+                    yaml.load(file);
+                } catch (IOException | InvalidConfigurationException e) {
+                    e.printStackTrace();
+                    INSTANCE.getLogger().warning("Unable to load the messages of \"" + file.getName() + "\": " + e.getMessage());
+                    continue;
+                }
+
+                final Map<String, Message> messages = new HashMap<>();
+                for (String key : yaml.getKeys(true)) {
+                    final String raw;
+                    if (yaml.isString(key)) raw = yaml.getString(key);
+                    else if (yaml.isList(key)) raw = String.join("\n", yaml.getStringList(key));
+                    else continue;
+
+                    if (raw != null) messages.put(key, new Message(INSTANCE, key, raw));
+                }
+
+                updated.put(locale, Collections.unmodifiableMap(messages));
+                modified.put(locale, file.lastModified());
+                changed = true;
+            }
+
+        if (updated.keySet().retainAll(present)) changed = true;
+        modified.keySet().retainAll(present);
+
+        if (changed) locales = Collections.unmodifiableMap(updated);
+        return changed;
+    }
+
+    /**
+     * Checks the folder for changed files off the server thread and reloads them.
+     *
+     * @param intervalSeconds The seconds between checks.
+     */
+    public synchronized void enableHotReload(long intervalSeconds) {
+        disableHotReload();
+
+        final long period = (Math.max(1, intervalSeconds) * 20);
+        reloadTask = INSTANCE.getServer().getScheduler().runTaskTimerAsynchronously(INSTANCE, () -> {
+            if (reload()) INSTANCE.getLogger().info("Reloaded the changed message files in \"" + folder.getName() + "\".");
+        }, period, period);
+    }
+
+    public synchronized void disableHotReload() {
+        if (reloadTask == null) return;
+
+        reloadTask.cancel();
+        reloadTask = null;
+    }
+
+    /**
+     * @param locale The locale (e.g. "en_us").
+     * @param key    The message key.
+     * @return The message of the locale, falling back to the default locale (NULL if neither has the key).
+     */
+    public @Nullable Message get(@Nullable String locale, @NotNull String key) {
+        final Map<String, Map<String, Message>> current = locales;
+        if (locale != null) {
+            final Map<String, Message> messages = current.get(normalize(locale));
+            if (messages != null) {
+                final Message message = messages.get(key);
+                if (message != null) return message;
+            }
+        }
+
+        final Map<String, Message> defaults = current.get(defaultLocale);
+        return ((defaults != null) ? defaults.get(key) : null);
+    }
+
+    /**
+     * @param recipient The player/command-sender the message is for (Players get their own locale).
+     * @param key       The message key.
+     * @return The message (NULL if no locale has the key).
+     */
+    public @Nullable Message get(@NotNull CommandSender recipient, @NotNull String key) {
+        return get(((recipient instanceof Player) ? ((Player) recipient).getLocale() : null), key);
+    }
+
+    /**
+     * Sends the message in the recipient's locale (Nothing is sent if the key is unknown).
+     *
+     * @param recipient    The player/command-sender to send to.
+     * @param key          The message key.
+     * @param placeholders The placeholders in the format <placeholder>:<value>.
+     */
+    public void send(@NotNull CommandSender recipient, @NotNull String key, @Nullable String... placeholders) {
+        final Message message = get(recipient, key);
+        if (message != null) message.send(recipient, placeholders);
+    }
+
+    // TAG getters & setters
+
+    public File getFolder() {return folder;}
+
+    public String getDefaultLocale() {return defaultLocale;}
+
+    /**
+     * @return The loaded locales.
+     */
+    public Set<String> getLocales() {return locales.keySet();}
+
+}
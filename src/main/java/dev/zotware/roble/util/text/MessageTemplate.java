@@ -0,0 +1,236 @@
+package dev.zotware.roble.util.text;
+
+import dev.zotware.roble.util.LRUCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+public class MessageTemplate {
+
+    private static final int CACHE_LIMIT = 4096, BUILDER_LIMIT = 8192;
+    private static final LRUCache<Key, MessageTemplate> CACHE = new LRUCache<>(CACHE_LIMIT);
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String text;
+    private final String[] keys, literals; // literals[i] comes before placeholder i, the last one trails
+    private final int[] placeholders; // key index per placeholder
+    private final int length;
+
+    private MessageTemplate(@NotNull String text, @NotNull String[] keys) {
+        this.text = text;
+        this.keys = keys;
+
+        final List<String> literalList = new ArrayList<>();
+        final List<Integer> placeholderList = new ArrayList<>();
+        int literalStart = 0, position = 0, literalLength = 0;
+        while (position < text.length()) {
+            final int keyIndex = match(text, position, keys);
+            if (keyIndex < 0) {
+                position++;
+                continue;
+            }
+
+            literalList.add(text.substring(literalStart, position));
+            literalLength += (position - literalStart);
+            placeholderList.add(keyIndex);
+            literalStart = (position += keys[keyIndex].length());
+        }
+
+        literalList.add(text.substring(literalStart));
+        literalLength += (text.length() - literalStart);
+
+        this.literals = literalList.toArray(new String[0]);
+        this.placeholders = new int[placeholderList.size()];
+        for (int i = -1; ++i < placeholders.length; ) placeholders[i] = placeholderList.get(i);
+        this.length = literalLength;
+    }
+
+    /**
+     * Parses the text into literal and placeholder segments once (Cached per text and key set, least recently used first out),
+     * matching the keys case-insensitively.
+     * When keys overlap at a position the longest wins, then the one passed first.
+     *
+     * @param text The text.
+     * @param keys The placeholder keys (e.g. "{player}").
+     * @return The compiled template.
+     */
+    public static MessageTemplate compile(@NotNull String text, @NotNull String... keys) {
+        final Key key = new Key(text, keys);
+        MessageTemplate template = CACHE.get(key);
+        if (template != null) return template;
+
+        final String[] keyCopy = keys.clone();
+        template = new MessageTemplate(text, keyCopy);
+        CACHE.put(new Key(text, keyCopy), template);
+        return template;
+    }
+
+    /**
+     * Renders placeholders in the legacy "<placeholder>:<value>" format (Split on the first ':' so values may contain it).
+     *
+     * @param text         The text.
+     * @param placeholders The placeholders.
+     * @return The text with every placeholder replaced literally.
+     */
+    public static String apply(@NotNull String text, @NotNull String... placeholders) {
+        final String[] keys = new String[placeholders.length], values = new String[placeholders.length];
+        int count = 0;
+        for (int i = -1; ++i < placeholders.length; ) {
+            final String placeholder = placeholders[i];
+            if (placeholder == null) continue;
+
+            final int split = placeholder.indexOf(':');
+            if (split <= 0) continue;
+
+            keys[count] = placeholder.substring(0, split);
+            values[count++] = placeholder.substring(split + 1);
+        }
+
+        if (count <= 0) return text;
+        return compile(text, ((count < keys.length) ? Arrays.copyOf(keys, count) : keys)).render((Object[]) values);
+    }
+
+    /**
+     * Clears every cached template.
+     */
+    public static void clearCache() {CACHE.clear();}
+
+    private static int match(@NotNull String text, int position, @NotNull String[] keys) {
+        int found = -1;
+        for (int i = -1; ++i < keys.length; ) {
+            final String key = keys[i];
+            if (key == null || key.isEmpty() || (found >= 0 && key.length() <= keys[found].length())) continue;
+            if (text.regionMatches(true, position, key, 0, key.length())) found = i;
+        }
+
+        return found;
+    }
+
+    /**
+     * @param values The values in the order of the keys the template was compiled with (Missing values render as an empty string).
+     * @return The rendered text.
+     */
+    public String render(@Nullable Object... values) {
+        if (placeholders.length == 0) return text;
+
+        final StringBuilder builder = getBuilder();
+        renderTo(builder, values);
+        return builder.toString();
+    }
+
+    /**
+     * @param values The values keyed exactly like the keys the template was compiled with (Missing keys stay as they are).
+     * @return The rendered text.
+     */
+    public String render(@NotNull Map<String, ?> values) {
+        if (placeholders.length == 0) return text;
+
+        final StringBuilder builder = getBuilder();
+        for (int i = -1; ++i < placeholders.length; ) {
+            builder.append(literals[i]);
+
+            final String key = keys[placeholders[i]];
+            if (values.containsKey(key)) builder.append(values.get(key));
+            else builder.append(key);
+        }
+
+        return builder.append(literals[placeholders.length]).toString();
+    }
+
+    /**
+     * Renders the template, passing every literal part through the function first (e.g. to resolve "%placeholder%" tokens
+     * of the compiled text without resolving those inside the values).
+     *
+     * @param literalMapper The function applied to every literal part.
+     * @param values        The values in the order of the keys the template was compiled with.
+     * @return The rendered text.
+     */
+    public String render(@NotNull UnaryOperator<String> literalMapper, @Nullable Object... values) {
+        if (placeholders.length == 0) return literalMapper.apply(text);
+
+        final StringBuilder builder = new StringBuilder(length + (placeholders.length * 16));
+        for (int i = -1; ++i < placeholders.length; ) {
+            if (!literals[i].isEmpty()) builder.append(literalMapper.apply(literals[i]));
+
+            final int keyIndex = placeholders[i];
+            if (values != null && keyIndex < values.length && values[keyIndex] != null) builder.append(values[keyIndex]);
+        }
+
+        final String trailing = literals[placeholders.length];
+        return (trailing.isEmpty() ? builder : builder.append(literalMapper.apply(trailing))).toString();
+    }
+
+    /**
+     * Appends the rendered text to the builder.
+     *
+     * @param builder The builder to append to.
+     * @param values  The values in the order of the keys the template was compiled with.
+     */
+    public void renderTo(@NotNull StringBuilder builder, @Nullable Object... values) {
+        for (int i = -1; ++i < placeholders.length; ) {
+            builder.append(literals[i]);
+
+            final int keyIndex = placeholders[i];
+            if (values != null && keyIndex < values.length && values[keyIndex] != null) builder.append(values[keyIndex]);
+        }
+
+        builder.append(literals[placeholders.length]);
+    }
+
+    private StringBuilder getBuilder() {
+        StringBuilder builder = BUILDER.get();
+        if (builder.capacity() > BUILDER_LIMIT) BUILDER.set(builder = new StringBuilder(256));
+
+        builder.setLength(0);
+        builder.ensureCapacity(length + (placeholders.length * 16));
+        return builder;
+    }
+
+    // TAG getters & setters
+
+    public String getText() {return text;}
+
+    public String[] getKeys() {return keys.clone();}
+
+    /**
+     * @return The amount of placeholders found in the text.
+     */
+    public int getPlaceholderCount() {return placeholders.length;}
+
+    /**
+     * @return The amount of cached templates.
+     */
+    public static int getCacheSize() {return CACHE.size();}
+
+    private static class Key {
+
+        private final String text;
+        private final String[] keys;
+        private final int hash;
+
+        private Key(@NotNull String text, @NotNull String[] keys) {
+            this.text = text;
+            this.keys = keys;
+            this.hash = ((31 * text.hashCode()) + Arrays.hashCode(keys));
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (!(object instanceof Key)) return false;
+
+            final Key other = (Key) object;
+            return (hash == other.hash && text.equals(other.text) && Arrays.equals(keys, other.keys));
+        }
+
+        @Override
+        public int hashCode() {return hash;}
+
+    }
+
+}
@@ -0,0 +1,251 @@
+package dev.zotware.roble.util.text;
+
+import dev.zotware.roble.RoblePlugin;
+import dev.zotware.roble.util.LRUCache;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+
+public class PlaceholderResolver {
+
+    private static final int TEMPLATE_CACHE_LIMIT = 4096;
+    static final int AMBIGUOUS = Integer.MIN_VALUE;
+
+    private final RoblePlugin INSTANCE;
+    private final LRUCache<String, Template> templates;
+    private final Map<UUID, Map<String, Resolved>> resolved;
+    private final Map<String, Long> ttls; // token -> ticks
+    private final Set<String> asyncTokens, pending;
+    private volatile long currentTick;
+    private long defaultTTL;
+
+    /**
+     * Creates a resolver that splits texts into literal parts and "%placeholder%" tokens once (Cached per text, the way
+     * PlaceholderAPI reads them, see {@link #scan(String, int)}), then resolves every (player, token) pair through PlaceholderAPI at most once per TTL (One tick by default).
+     *
+     * @param instance The plugin instance.
+     */
+    public PlaceholderResolver(@NotNull RoblePlugin instance) {
+        this.INSTANCE = instance;
+        this.templates = new LRUCache<>(TEMPLATE_CACHE_LIMIT);
+        this.resolved = new ConcurrentHashMap<>();
+        this.ttls = new ConcurrentHashMap<>();
+        this.asyncTokens = ConcurrentHashMap.newKeySet();
+        this.pending = ConcurrentHashMap.newKeySet();
+        setDefaultTTL(1);
+        INSTANCE.getServer().getScheduler().runTaskTimer(INSTANCE, () -> currentTick++, 1, 1);
+    }
+
+    /**
+     * @param player The player to resolve the placeholders for.
+     * @param text   The text with "%placeholder%" tokens.
+     * @return The text with every token resolved.
+     */
+    public String resolve(@NotNull Player player, @Nullable String text) {
+        if (text == null || text.indexOf('%') < 0) return text;
+
+        final Template template = getTemplate(text);
+        if (template.ambiguous) return me.clip.placeholderapi.PlaceholderAPI.setPlaceholders(player, text);
+        if (template.tokens.length == 0) return text;
+
+        final StringBuilder builder = new StringBuilder(text.length() + (template.tokens.length * 8));
+        for (int i = -1; ++i < template.tokens.length; )
+            builder.append(template.literals[i]).append(resolveToken(player, template.tokens[i]));
+        return builder.append(template.literals[template.tokens.length]).toString();
+    }
+
+    /**
+     * @param player The player to resolve the placeholder for.
+     * @param token  The full token including the '%' signs (e.g. "%player_level%").
+     * @return The resolved value (The token itself if PlaceholderAPI does not know it).
+     */
+    public String resolveToken(@NotNull Player player, @NotNull String token) {
+        if (token.isEmpty() || token.charAt(0) != '%' || scan(token, 0) != token.length())
+            return me.clip.placeholderapi.PlaceholderAPI.setPlaceholders(player, token); // nothing is kept for what is not a token
+
+        final long tick = currentTick;
+        final Map<String, Resolved> playerValues = resolved.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentHashMap<>());
+        final Resolved cached = playerValues.get(token);
+        if (cached != null && tick < cached.expiresAt) return cached.value;
+
+        if (cached != null && asyncTokens.contains(token)) {
+            refreshAsync(player, token, playerValues);
+            return cached.value; // the stale value is shown until the refresh finished
+        }
+
+        final String value = me.clip.placeholderapi.PlaceholderAPI.setPlaceholders(player, token);
+        playerValues.put(token, new Resolved(value, (tick + getTTL(token))));
+        return value;
+    }
+
+    private void refreshAsync(@NotNull Player player, @NotNull String token, @NotNull Map<String, Resolved> playerValues) {
+        final String pendingKey = (player.getUniqueId() + token);
+        if (!pending.add(pendingKey)) return;
+
+        try {
+            INSTANCE.getIOExecutor().execute(() -> {
+                try {
+                    final String value = me.clip.placeholderapi.PlaceholderAPI.setPlaceholders(player, token);
+                    if (resolved.get(player.getUniqueId()) == playerValues)
+                        playerValues.put(token, new Resolved(value, (currentTick + getTTL(token))));
+                } catch (RuntimeException e) {
+                    INSTANCE.getLogger().log(Level.WARNING, "Unable to resolve the placeholder " + token + " asynchronously.", e);
+                } finally {
+                    pending.remove(pendingKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(pendingKey);
+        }
+    }
+
+    private Template getTemplate(@NotNull String text) {
+        Template template = templates.get(text);
+        if (template != null) return template;
+
+        template = new Template(text);
+        templates.put(text, template);
+        return template;
+    }
+
+    /**
+     * Reads the "%placeholder%" token starting at the '%' the way PlaceholderAPI does. A token is an identifier without
+     * whitespace followed by '_', the parameters and a closing '%'. A space before the '_' leaves the '%' literal and
+     * "%%" is literal as a whole.
+     *
+     * @param text  The text.
+     * @param start The index of the '%'.
+     * @return The index after the closing '%' of a token, the negated index after the literal part when there is none,
+     * or {@link #AMBIGUOUS} for a closed token without '_' (Only the installed expansions tell whether it is one).
+     */
+    static int scan(@NotNull String text, int start) {
+        boolean identified = false, invalid = false;
+        for (int i = start; ++i < text.length(); ) {
+            final char c = text.charAt(i);
+            if (c == '%') {
+                if (identified && !invalid) return (i + 1);
+                return ((identified || invalid || i == (start + 1)) ? -(i + 1) : AMBIGUOUS);
+            }
+
+            if (identified) continue;
+            if (c == ' ') return -(i + 1);
+            if (c == '_') {
+                identified = true;
+                invalid |= (i == (start + 1)); // an empty identifier never matches an expansion
+            } else invalid |= Character.isWhitespace(c);
+        }
+
+        return -text.length();
+    }
+
+    /**
+     * Forgets every value resolved for the player (e.g. when they quit).
+     *
+     * @param playerUniqueId The player's unique id.
+     */
+    public void clear(@NotNull UUID playerUniqueId) {resolved.remove(playerUniqueId);}
+
+    /**
+     * Forgets every value resolved for every player.
+     */
+    public void clearAll() {resolved.clear();}
+
+    // TAG getters & setters
+
+    /**
+     * @param token The full token including the '%' signs.
+     * @return The ticks a resolved value of the token is reused for.
+     */
+    public long getTTL(@NotNull String token) {
+        final Long ttl = ttls.get(token);
+        return ((ttl != null) ? ttl : defaultTTL);
+    }
+
+    /**
+     * @param token The full token including the '%' signs (e.g. "%vault_eco_balance%").
+     * @param ticks The ticks a resolved value is reused for.
+     */
+    public void setTTL(@NotNull String token, long ticks) {ttls.put(token, Math.max(1, ticks));}
+
+    /**
+     * Marks an expensive token to be refreshed on the I/O executor once its TTL passed, showing the previous value meanwhile
+     * (Only use this for placeholders whose expansion is safe to call off the server thread).
+     *
+     * @param token The full token including the '%' signs.
+     * @param ticks The ticks a resolved value is reused for.
+     */
+    public void setAsync(@NotNull String token, long ticks) {
+        setTTL(token, ticks);
+        asyncTokens.add(token);
+    }
+
+    public long getDefaultTTL() {return defaultTTL;}
+
+    /**
+     * @param defaultTTL The ticks a resolved value is reused for when its token has no TTL of its own.
+     */
+    public void setDefaultTTL(long defaultTTL) {this.defaultTTL = Math.max(1, defaultTTL);}
+
+    /**
+     * @return The server ticks counted since the resolver was created.
+     */
+    public long getCurrentTick() {return currentTick;}
+
+    static class Template {
+
+        final String[] literals, tokens; // literals[i] comes before tokens[i], the last one trails
+        final boolean ambiguous; // the whole text is then resolved through PlaceholderAPI each time
+
+        Template(@NotNull String text) {
+            final List<String> literalList = new ArrayList<>(), tokenList = new ArrayList<>();
+            boolean ambiguous = false;
+            int literalStart = 0, position = 0, start;
+            while ((start = text.indexOf('%', position)) >= 0) {
+                final int end = scan(text, start);
+                if (end == AMBIGUOUS) {
+                    ambiguous = true;
+                    break;
+                }
+
+                if (end < 0) {
+                    position = -end;
+                    continue;
+                }
+
+                literalList.add(text.substring(literalStart, start));
+                tokenList.add(text.substring(start, end));
+                literalStart = position = end;
+            }
+
+            if (ambiguous) {
+                literalList.clear();
+                tokenList.clear();
+                literalStart = 0;
+            }
+
+            literalList.add(text.substring(literalStart));
+            this.literals = literalList.toArray(new String[0]);
+            this.tokens = tokenList.toArray(new String[0]);
+            this.ambiguous = ambiguous;
+        }
+
+    }
+
+    private static class Resolved {
+
+        private final String value;
+        private final long expiresAt;
+
+        private Resolved(@NotNull String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
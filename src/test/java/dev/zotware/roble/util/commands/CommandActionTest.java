@@ -0,0 +1,59 @@
+package dev.zotware.roble.util.commands;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandActionTest {
+
+    private static void assertParsed(String line, CommandAction.Target target, String command) {
+        final CommandAction action = new CommandAction(line);
+        assertEquals(target, action.getTarget(), line);
+        assertEquals(command, action.getCommand(), line);
+        assertEquals(line, action.getLine());
+    }
+
+    @Test
+    public void runsFromTheConsoleByDefault() {
+        assertParsed("say hello", CommandAction.Target.CONSOLE, "say hello");
+        assertParsed("/say hello", CommandAction.Target.CONSOLE, "say hello");
+    }
+
+    @Test
+    public void readsTheTargetSuffix() {
+        assertParsed("spawn:PLAYER", CommandAction.Target.PLAYER, "spawn");
+        assertParsed("/spawn:player", CommandAction.Target.PLAYER, "spawn");
+        assertParsed("eco give {player} 5:Console", CommandAction.Target.CONSOLE, "eco give {player} 5");
+        assertParsed("hello everyone:chat", CommandAction.Target.CHAT, "hello everyone");
+    }
+
+    @Test
+    public void trimsTheSuffix() {
+        assertParsed("spawn: PLAYER ", CommandAction.Target.PLAYER, "spawn");
+    }
+
+    @Test
+    public void keepsOtherColonsInTheCommand() {
+        assertParsed("give {player} minecraft:diamond", CommandAction.Target.CONSOLE, "give {player} minecraft:diamond");
+        assertParsed("give {player} minecraft:diamond:PLAYER", CommandAction.Target.PLAYER, "give {player} minecraft:diamond");
+        assertParsed("tp {player} 0:64:0", CommandAction.Target.CONSOLE, "tp {player} 0:64:0");
+        assertParsed("cmd:", CommandAction.Target.CONSOLE, "cmd:");
+    }
+
+    @Test
+    public void onlyTheLastColonIsASuffix() {
+        assertParsed("say PLAYER:CHAT", CommandAction.Target.CHAT, "say PLAYER");
+        assertParsed("say :PLAYER:x", CommandAction.Target.CONSOLE, "say :PLAYER:x");
+    }
+
+    @Test
+    public void keepsTheSlashOfChatMessages() {
+        assertParsed("/spawn:CHAT", CommandAction.Target.CHAT, "/spawn");
+    }
+
+    @Test
+    public void allowsAnEmptyCommand() {
+        assertParsed(":PLAYER", CommandAction.Target.PLAYER, "");
+    }
+
+}
@@ -0,0 +1,119 @@
+package dev.zotware.roble.util.cooldowns;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CooldownCodecTest {
+
+    private CooldownStore store;
+    private UUID player;
+
+    @BeforeEach
+    public void setUp() {
+        store = new CooldownStore();
+        player = UUID.randomUUID();
+    }
+
+    @Test
+    public void roundTripsTimedAndUntimedCooldowns() {
+        final long now = System.currentTimeMillis();
+        final int kit = store.getHandle("kit"), home = store.getHandle("home"), warp = store.getHandle("warp.spawn");
+        store.set(player, kit, now - 5_000);
+        assertTrue(store.setExpiry(player, kit, now - 5_000, now + 60_000));
+        store.set(player, home, now - 1);
+        store.set(player, warp, now - 300_000);
+        assertTrue(store.setExpiry(player, warp, now - 300_000, now + 86_400_000L));
+
+        final byte[] bytes = CooldownCodec.encode(store, player);
+        assertNotNull(bytes);
+
+        final CooldownStore decoded = new CooldownStore();
+        decoded.getHandle("other"); // handles are matched by id, not by their index
+        CooldownCodec.decode(decoded, null, player, bytes);
+
+        assertEquals(store.getAll(player), decoded.getAll(player));
+        assertEquals(now + 60_000, decoded.getExpiry(player, decoded.findHandle("kit")));
+        assertEquals(0, decoded.getExpiry(player, decoded.findHandle("home")));
+        assertEquals(now + 86_400_000L, decoded.getExpiry(player, decoded.findHandle("warp.spawn")));
+    }
+
+    @Test
+    public void leavesOutExpiredCooldowns() {
+        final long now = System.currentTimeMillis();
+        final int expired = store.getHandle("expired"), active = store.getHandle("active");
+        store.set(player, expired, now - 10_000);
+        assertTrue(store.setExpiry(player, expired, now - 10_000, now - 1));
+        store.set(player, active, now);
+
+        final CooldownStore decoded = new CooldownStore();
+        CooldownCodec.decode(decoded, null, player, CooldownCodec.encode(store, player));
+        assertEquals(1, decoded.getAll(player).size());
+        assertEquals(now, decoded.getAll(player).get("active").longValue());
+    }
+
+    @Test
+    public void encodesNothingWithoutCooldowns() {
+        store.getHandle("unused");
+        assertNull(CooldownCodec.encode(store, player));
+    }
+
+    @Test
+    public void skipsCooldownsThatExpiredWhileStored() {
+        final byte[] id = "old".getBytes(StandardCharsets.UTF_8);
+        final byte[] bytes = new byte[]{1, 1, (byte) id.length, id[0], id[1], id[2], 1, (byte) 0xE8, 0x07, 0, 0, 10};
+
+        CooldownCodec.decode(store, null, player, bytes);
+        assertTrue(store.getAll(player).isEmpty());
+    }
+
+    @Test
+    public void schedulesDecodedExpiries() {
+        final long now = System.currentTimeMillis();
+        final int kit = store.getHandle("kit");
+        store.set(player, kit, now);
+        assertTrue(store.setExpiry(player, kit, now, now + 60_000));
+
+        final CooldownStore decoded = new CooldownStore();
+        final CooldownWheel wheel = new CooldownWheel(null, decoded);
+        CooldownCodec.decode(decoded, wheel, player, CooldownCodec.encode(store, player));
+        wheel.tick();
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void keepsLargeTimestampsAndDurations() {
+        final long now = System.currentTimeMillis(), far = now + (365L * 86_400_000L);
+        final int handle = store.getHandle("yearly");
+        store.set(player, handle, now);
+        assertTrue(store.setExpiry(player, handle, now, far));
+
+        final CooldownStore decoded = new CooldownStore();
+        CooldownCodec.decode(decoded, null, player, CooldownCodec.encode(store, player));
+        assertEquals(now, decoded.get(player, decoded.findHandle("yearly")));
+        assertEquals(far, decoded.getExpiry(player, decoded.findHandle("yearly")));
+    }
+
+    @Test
+    public void rejectsUnknownVersions() {
+        assertThrows(IllegalArgumentException.class, () -> CooldownCodec.decode(store, null, player, new byte[]{2, 0, 0, 0}));
+    }
+
+    @Test
+    public void rejectsTruncatedBytes() {
+        final long now = System.currentTimeMillis();
+        store.set(player, store.getHandle("kit"), now);
+        final byte[] bytes = CooldownCodec.encode(store, player);
+
+        for (int length = 0; length < bytes.length; length++) {
+            final byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IllegalArgumentException.class, () -> CooldownCodec.decode(new CooldownStore(), null, player, truncated));
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package dev.zotware.roble.util.cooldowns;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CooldownWheelTest {
+
+    private static final long START = 1_000_000L, TICK = 50;
+
+    private AtomicLong clock;
+    private CooldownStore store;
+    private CooldownWheel wheel;
+    private UUID player;
+    private int handle;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new AtomicLong(START);
+        store = new CooldownStore();
+        wheel = new CooldownWheel(null, store, clock::get);
+        player = UUID.randomUUID();
+        handle = store.getHandle("test");
+    }
+
+    private void start(long timestamp, long expiresAt, Runnable callback) {
+        store.set(player, handle, timestamp);
+        assertTrue(store.setExpiry(player, handle, timestamp, expiresAt));
+        wheel.schedule(player, handle, timestamp, expiresAt, callback);
+    }
+
+    private void advanceTo(long time) {
+        clock.set(time);
+        wheel.tick();
+    }
+
+    @Test
+    public void expiresOnTheTickItEnds() {
+        final AtomicInteger calls = new AtomicInteger();
+        start(START, START + (3 * TICK), calls::incrementAndGet);
+
+        advanceTo(START + (2 * TICK));
+        assertEquals(START, store.get(player, handle));
+        assertEquals(1, wheel.size());
+
+        advanceTo(START + (3 * TICK));
+        assertEquals(0, store.get(player, handle));
+        assertEquals(0, wheel.size());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void partialTicksRoundUp() {
+        start(START, START + TICK + 1, null);
+
+        advanceTo(START + TICK + 1);
+        assertEquals(START, store.get(player, handle));
+
+        advanceTo(START + (2 * TICK));
+        assertEquals(0, store.get(player, handle));
+    }
+
+    @Test
+    public void cascadesFromHigherLevels() {
+        final long deadline = ((64 * 64) + 10); // placed on the third level
+        start(START, START + (deadline * TICK), null);
+
+        for (long tick = 1; tick < deadline; tick++) {
+            advanceTo(START + (tick * TICK));
+            assertEquals(START, store.get(player, handle), "expired early at tick " + tick);
+        }
+
+        advanceTo(START + (deadline * TICK));
+        assertEquals(0, store.get(player, handle));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void requeuesBeyondTheHorizon() {
+        final long deadline = ((1L << 24) + 100); // past the reach of the top level
+        start(START, START + (deadline * TICK), null);
+
+        advanceTo(START + ((deadline - 1) * TICK));
+        assertEquals(START, store.get(player, handle));
+        assertEquals(1, wheel.size());
+
+        advanceTo(START + (deadline * TICK));
+        assertEquals(0, store.get(player, handle));
+    }
+
+    @Test
+    public void alreadyExpiredIsRemovedOnTheNextTick() {
+        final AtomicInteger calls = new AtomicInteger();
+        start(START - 1000, START - 1, calls::incrementAndGet);
+
+        wheel.tick();
+        assertEquals(0, store.get(player, handle));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void restartedCooldownIsKept() {
+        final AtomicInteger calls = new AtomicInteger();
+        start(START, START + (2 * TICK), calls::incrementAndGet);
+        wheel.tick();
+
+        store.set(player, handle, START + TICK); // restarted without a known expiry
+
+        advanceTo(START + (5 * TICK));
+        assertEquals(START + TICK, store.get(player, handle));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void clearedCooldownDoesNotRunTheCallback() {
+        final AtomicInteger calls = new AtomicInteger();
+        start(START, START + (2 * TICK), calls::incrementAndGet);
+
+        store.remove(player, handle);
+        advanceTo(START + (2 * TICK));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void onlyExpiresDueCooldowns() {
+        final UUID other = UUID.randomUUID();
+        start(START, START + TICK, null);
+        store.set(other, handle, START);
+        assertTrue(store.setExpiry(other, handle, START, START + (10 * TICK)));
+        wheel.schedule(other, handle, START, START + (10 * TICK), null);
+
+        advanceTo(START + (5 * TICK));
+        assertEquals(0, store.get(player, handle));
+        assertEquals(START, store.get(other, handle));
+        assertEquals(1, wheel.size());
+    }
+
+}
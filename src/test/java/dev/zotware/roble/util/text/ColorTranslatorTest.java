@@ -0,0 +1,97 @@
+package dev.zotware.roble.util.text;
+
+import net.md_5.bungee.api.ChatColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColorTranslatorTest {
+
+    private static final Pattern HEX_PATTERN = Pattern.compile("#[a-fA-F\\d]{6}");
+    private static final String[] SAMPLES = {"", "plain text", "&aGreen &lbold", "&Aupper &Rreset", "&&a", "&", "a&", "&z not a code",
+            "#a1B2c3 hex", "#12345 short", "##abcdef", "&#abcdef", "#abcdef&a", "#ABCDEFG", "100% #ffffff & &f",
+            "&x&a&b&c&d&e&f", "#0000001#000000", "\u00A7a already", "#GGGGGG", "text #abcde"};
+
+    /**
+     * The translation the translator replaced, kept as the reference its output must match.
+     */
+    private static String legacy(String message, boolean hex) {
+        if (message == null || message.isEmpty()) return message;
+
+        if (hex) {
+            Matcher matcher = HEX_PATTERN.matcher(message);
+            while (matcher.find()) {
+                final ChatColor hexColor = ChatColor.of(matcher.group());
+                final String before = message.substring(0, matcher.start()), after = message.substring(matcher.end());
+                matcher = HEX_PATTERN.matcher(message = (before + hexColor + after));
+            }
+        }
+
+        return ChatColor.translateAlternateColorCodes('&', message);
+    }
+
+    @Test
+    public void matchesTheLegacyTranslation() {
+        for (boolean hex : new boolean[]{true, false}) {
+            final ColorTranslator translator = new ColorTranslator(hex);
+            for (String sample : SAMPLES) assertEquals(legacy(sample, hex), translator.translate(sample), "\"" + sample + "\" (hex " + hex + ")");
+        }
+    }
+
+    @Test
+    public void matchesTheLegacyTranslationForRandomText() {
+        final String alphabet = "&#aAbBfFkKrRxX09gG %\u00A7";
+        final Random random = new Random(42);
+        final ColorTranslator hexTranslator = new ColorTranslator(true), legacyTranslator = new ColorTranslator(false);
+        for (int i = -1; ++i < 20_000; ) {
+            final char[] chars = new char[random.nextInt(24)];
+            for (int j = -1; ++j < chars.length; ) chars[j] = alphabet.charAt(random.nextInt(alphabet.length()));
+
+            final String text = new String(chars);
+            assertEquals(legacy(text, true), hexTranslator.translate(text), "\"" + text + "\"");
+            assertEquals(legacy(text, false), legacyTranslator.translate(text), "\"" + text + "\"");
+        }
+    }
+
+    @Test
+    public void returnsTextWithoutCodesAsIs() {
+        final String text = "no codes # & here";
+        assertSame(text, new ColorTranslator(true).translate(text));
+        assertNull(new ColorTranslator(true).translate(null));
+    }
+
+    @Test
+    public void cachesShortTextsOnly() {
+        final ColorTranslator translator = new ColorTranslator(true);
+        translator.setCacheableLength(8);
+
+        translator.translate("&ashort");
+        translator.translate("&athis one is too long");
+        assertEquals(1, translator.getCacheSize());
+        assertEquals(legacy("&ashort", true), translator.translate("&ashort"));
+    }
+
+    @Test
+    public void cachesNothingWithoutALimit() {
+        final ColorTranslator translator = new ColorTranslator(true);
+        translator.setCacheLimit(0);
+
+        assertEquals(legacy("&acolored", true), translator.translate("&acolored"));
+        assertEquals(0, translator.getCacheSize());
+    }
+
+    @Test
+    public void evictsOnceTheLimitIsReached() {
+        final ColorTranslator translator = new ColorTranslator(true);
+        translator.setCacheLimit(16);
+
+        for (int i = -1; ++i < 1000; ) translator.translate("&a" + i);
+        assertTrue(translator.getCacheSize() <= 16, "cached " + translator.getCacheSize());
+        assertTrue(translator.getCacheSize() > 0);
+    }
+
+}
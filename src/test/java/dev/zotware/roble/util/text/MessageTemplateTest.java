@@ -0,0 +1,87 @@
+package dev.zotware.roble.util.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageTemplateTest {
+
+    @Test
+    public void longestKeyWinsAtAPosition() {
+        final MessageTemplate template = MessageTemplate.compile("{player} {player_name}", "{player}", "{player_name}");
+        assertEquals("Steve Steve123", template.render("Steve", "Steve123"));
+    }
+
+    @Test
+    public void longestKeyWinsRegardlessOfOrder() {
+        final MessageTemplate template = MessageTemplate.compile("%amount%%amount_total%", "%amount_total%", "%amount%");
+        assertEquals("5100", template.render("100", "5"));
+    }
+
+    @Test
+    public void firstPassedKeyWinsATie() {
+        final MessageTemplate template = MessageTemplate.compile("{A}", "{a}", "{A}");
+        assertEquals("first", template.render("first", "second"));
+    }
+
+    @Test
+    public void matchesKeysCaseInsensitively() {
+        final MessageTemplate template = MessageTemplate.compile("Hi {PLAYER}, {Player}!", "{player}");
+        assertEquals(2, template.getPlaceholderCount());
+        assertEquals("Hi Alex, Alex!", template.render("Alex"));
+    }
+
+    @Test
+    public void skipsPastReplacedKeys() {
+        final MessageTemplate template = MessageTemplate.compile("{a}{a}", "{a}", "}{a}"); // "}{a}" overlaps the first match
+        assertEquals("11", template.render("1", "2"));
+        assertEquals("12", MessageTemplate.compile("{a}}{a}", "{a}", "}{a}").render("1", "2"));
+    }
+
+    @Test
+    public void rendersMissingValuesEmpty() {
+        final MessageTemplate template = MessageTemplate.compile("[{a}|{b}]", "{a}", "{b}");
+        assertEquals("[x|]", template.render("x"));
+        assertEquals("[|]", template.render((Object[]) null));
+    }
+
+    @Test
+    public void keepsKeysMissingFromTheMap() {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("{a}", 1);
+        assertEquals("1 {b}", MessageTemplate.compile("{a} {b}", "{a}", "{b}").render(values));
+    }
+
+    @Test
+    public void returnsTheTextWithoutPlaceholders() {
+        final String text = "nothing to replace";
+        assertSame(text, MessageTemplate.compile(text, "{a}").render("x"));
+    }
+
+    @Test
+    public void ignoresEmptyKeys() {
+        assertEquals("ab", MessageTemplate.compile("a{b}", "", "{b}").render("unused", "b"));
+    }
+
+    @Test
+    public void appliesLegacyPlaceholdersSplitOnTheFirstColon() {
+        assertEquals("give Steve minecraft:diamond", MessageTemplate.apply("give {player} {item}",
+                "{player}:Steve", "{item}:minecraft:diamond", "invalid", null));
+    }
+
+    @Test
+    public void mapsLiteralsButNotValues() {
+        final MessageTemplate template = MessageTemplate.compile("a{v}b", "{v}");
+        assertEquals("AxB", template.render(String::toUpperCase, "x"));
+    }
+
+    @Test
+    public void reusesCompiledTemplates() {
+        assertSame(MessageTemplate.compile("{a} reused", "{a}"), MessageTemplate.compile("{a} reused", "{a}"));
+        assertNotSame(MessageTemplate.compile("{a} reused", "{a}"), MessageTemplate.compile("{a} reused", "{a}", "{b}"));
+    }
+
+}
@@ -0,0 +1,71 @@
+package dev.zotware.roble.util.text;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlaceholderResolverTest {
+
+    private static void assertTemplate(String text, String[] literals, String[] tokens) {
+        final PlaceholderResolver.Template template = new PlaceholderResolver.Template(text);
+        assertFalse(template.ambiguous, text);
+        assertArrayEquals(literals, template.literals);
+        assertArrayEquals(tokens, template.tokens);
+    }
+
+    @Test
+    public void splitsTokens() {
+        assertTemplate("Hi %player_name%, you have %vault_eco_balance%$",
+                new String[]{"Hi ", ", you have ", "$"}, new String[]{"%player_name%", "%vault_eco_balance%"});
+        assertTemplate("%player_name%%player_level%", new String[]{"", "", ""}, new String[]{"%player_name%", "%player_level%"});
+    }
+
+    @Test
+    public void leavesAPercentFollowedByASpaceLiteral() {
+        assertTemplate("&a50% off for %player_name%", new String[]{"&a50% off for ", ""}, new String[]{"%player_name%"});
+        assertTemplate("100 % sure", new String[]{"100 % sure"}, new String[0]);
+        assertTemplate("%a b_c% %player_name%", new String[]{"%a b_c% ", ""}, new String[]{"%player_name%"});
+    }
+
+    @Test
+    public void allowsSpacesInParameters() {
+        assertTemplate("%math_1 + 2%", new String[]{"", ""}, new String[]{"%math_1 + 2%"});
+    }
+
+    @Test
+    public void consumesDoublePercentAsLiteral() {
+        assertTemplate("%%player_name%", new String[]{"%%player_name%"}, new String[0]);
+        assertTemplate("100%%", new String[]{"100%%"}, new String[0]);
+    }
+
+    @Test
+    public void leavesUnclosedTokensLiteral() {
+        assertTemplate("%player_name", new String[]{"%player_name"}, new String[0]);
+        assertTemplate("50%", new String[]{"50%"}, new String[0]);
+    }
+
+    @Test
+    public void rejectsInvalidIdentifiers() {
+        assertTemplate("%_name% %player_name%", new String[]{"%_name% ", ""}, new String[]{"%player_name%"});
+        assertTemplate("%a\tb_c%", new String[]{"%a\tb_c%"}, new String[0]);
+    }
+
+    @Test
+    public void fallsBackForTokensWithoutUnderscore() {
+        final PlaceholderResolver.Template template = new PlaceholderResolver.Template("%player_name% has %online%");
+        assertTrue(template.ambiguous);
+        assertEquals(0, template.tokens.length);
+        assertArrayEquals(new String[]{"%player_name% has %online%"}, template.literals);
+    }
+
+    @Test
+    public void scansLikePlaceholderAPI() {
+        assertEquals(13, PlaceholderResolver.scan("%player_name% x", 0));
+        assertEquals(-2, PlaceholderResolver.scan("% off", 0));
+        assertEquals(-2, PlaceholderResolver.scan("%%", 0));
+        assertEquals(PlaceholderResolver.AMBIGUOUS, PlaceholderResolver.scan("%online%", 0));
+        assertEquals(-12, PlaceholderResolver.scan("%player_name", 0));
+        assertEquals(-5, PlaceholderResolver.scan("a b %", 4));
+    }
+
+}